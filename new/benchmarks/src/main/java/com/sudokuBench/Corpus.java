@@ -0,0 +1,25 @@
+package com.sudokuBench;
+
+// The fixed puzzles the benchmarks solve; each has exactly one solution.
+public final class Corpus {
+    static final String EASY = "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    static final String MEDIUM = "..9748...7.........2.1.9.....7...24..64.1.59..98...3.....8.3.2.........6...2759..";
+    static final String HARD = "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..";
+    static final String SEVENTEEN = "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    private Corpus() { }
+
+    public static int[] Get(String name) {
+        String puzzle = name.equals("easy") ? EASY : name.equals("medium") ? MEDIUM
+                : name.equals("hard") ? HARD : name.equals("seventeen") ? SEVENTEEN : null;
+        if (puzzle == null)
+            throw new IllegalArgumentException("no puzzle named " + name);
+
+        int[] sudoku = new int[81];
+        for (int i = 0; i < 81; ++i) {
+            char c = puzzle.charAt(i);
+            sudoku[i] = (c >= '1' && c <= '9') ? c - '0' : 0;
+        }
+        return sudoku;
+    }
+}
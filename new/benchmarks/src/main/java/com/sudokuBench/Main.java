@@ -0,0 +1,25 @@
+package com.sudokuBench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks with the GC profiler (allocation rate and bytes per
+// operation) and saves the results as JSON, so runs can be compared.  Any
+// JMH command line option may be given; the results go to the file named
+// by -rff, or to jmh-result.json.
+public class Main {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions command = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(command);
+        if (command.getProfilers().isEmpty())
+            options.addProfiler(GCProfiler.class);
+        options.resultFormat(command.getResultFormat().orElse(ResultFormatType.JSON));
+        options.result(command.getResult().orElse("jmh-result.json"));
+
+        new Runner(options.build()).run();
+    }
+}
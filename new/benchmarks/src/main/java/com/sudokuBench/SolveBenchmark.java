@@ -0,0 +1,57 @@
+package com.sudokuBench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sudokuSolver.BitmaskSolver;
+import com.sudokuSolver.SudokuEngine;
+import com.sudokuSolver.SudokuSolver;
+
+// Solve time of each engine on fixed easy, medium, hard and 17-clue puzzles.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({ "easy", "medium", "hard", "seventeen" })
+    public String puzzle;
+
+    @Param({ "node", "array", "bitmask" })
+    public String engine;
+
+    private int[] _puzzle;
+    private SudokuEngine _solver;
+    private final int[] _sudoku = new int[81];
+
+    @Setup
+    public void Setup() {
+        _puzzle = Corpus.Get(puzzle);
+        _solver = engine.equals("bitmask") ? new BitmaskSolver()
+                : new SudokuSolver(9, engine.equals("node") ? SudokuSolver.NODE_ENGINE : SudokuSolver.ARRAY_ENGINE);
+    }
+
+    @Benchmark
+    public int[] Solve() {
+        System.arraycopy(_puzzle, 0, _sudoku, 0, 81);
+        _solver.Solve(_sudoku);
+        return _sudoku;
+    }
+
+    @Benchmark
+    public int CountSolutions() {
+        return _solver.CountSolutions(_puzzle, 2);
+    }
+}
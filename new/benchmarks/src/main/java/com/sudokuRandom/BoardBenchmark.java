@@ -0,0 +1,87 @@
+package com.sudokuRandom;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Puzzle generation: a whole Board per difficulty, from the shuffled seed
+// and from a GridGenerator grid, with clues removed at random or only while
+// the solution stays unique, and the shuffle step and a generated grid
+// on their own.  The Legacy benchmarks run LegacyBoard, the Tile and House
+// implementation Board replaced, for comparison.  Lives in com.sudokuRandom
+// to reach the package-private shuffle.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({ "1", "2", "3", "4" })
+    public int difficulty;
+
+    private Board _board;
+    private LegacyBoard _legacyBoard;
+    private final GridGenerator _generator = new GridGenerator(new SplitMix64(1));
+    private final int[] _grid = new int[81];
+    private long _seed = 0;
+
+    @Setup
+    public void Setup() {
+        _board = new Board(difficulty);
+        _legacyBoard = new LegacyBoard(difficulty);
+    }
+
+    @Benchmark
+    public Board Generate() {
+        return new Board(difficulty);
+    }
+
+    @Benchmark
+    public LegacyBoard LegacyGenerate() {
+        return new LegacyBoard(difficulty);
+    }
+
+    @Benchmark
+    public Board GenerateFromGrid() {
+        return new Board(difficulty, _generator);
+    }
+
+    @Benchmark
+    public Board GenerateUnique() {
+        return new Board(difficulty, _generator, true);
+    }
+
+    @Benchmark
+    public Board GenerateFromSeed() {
+        return new Board(difficulty, _seed++);
+    }
+
+    @Benchmark
+    public int[] Grid() {
+        _generator.generate(_grid);
+        return _grid;
+    }
+
+    @Benchmark
+    public Board Shuffle() {
+        _board.shuffle();
+        return _board;
+    }
+
+    @Benchmark
+    public LegacyBoard LegacyShuffle() {
+        _legacyBoard.shuffle();
+        return _legacyBoard;
+    }
+}
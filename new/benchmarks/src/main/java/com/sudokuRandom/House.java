@@ -1,4 +1,6 @@
 /*
+ * Only LegacyBoard, kept for BoardBenchmark, uses this object. It is not used by the app.
+ *
  * This object holds a group of 9 Tiles in an array called "members."
  * It also has a type, which can be 'r' for row, 'c' for column, or 'z' for zone.
  * The following public functions are available:
@@ -1,4 +1,6 @@
 /* 
+ * Only LegacyBoard, kept for BoardBenchmark, uses this object. It is not used by the app.
+ *
  * This object represents a particular tile in on the sudoku board.
  * It holds a value, and belongs to a row, a column and a zone, and an id number from 0 to 80.
  * The following public functions are available:
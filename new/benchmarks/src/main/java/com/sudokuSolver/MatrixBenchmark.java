@@ -0,0 +1,53 @@
+package com.sudokuSolver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Cost of building the exact-cover matrix.  The node engine builds one per
+// solve, with a single row for each given, so its cost depends on the
+// puzzle; the array engine's template always holds all 729 rows.  Lives in
+// com.sudokuSolver to reach SudokuSolver's package-private BuildMatrix.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+    @State(Scope.Thread)
+    public static class Puzzle {
+        @Param({ "empty", "easy", "seventeen" })
+        public String puzzle;
+
+        int[] _sudoku;
+
+        @Setup
+        public void Setup() {
+            _sudoku = puzzle.equals("empty") ? new int[81] : com.sudokuBench.Corpus.Get(puzzle);
+        }
+    }
+
+    private final SudokuSolver _solver = new SudokuSolver();
+
+    @Benchmark
+    public SudokuSolver NodeMatrix(Puzzle puzzle) {
+        _solver.BuildMatrix(puzzle._sudoku);
+        return _solver;
+    }
+
+    @Benchmark
+    public DLXArrayMatrix ArrayTemplate() {
+        return new SudokuSolver(9, SudokuSolver.ARRAY_ENGINE).Template();
+    }
+}
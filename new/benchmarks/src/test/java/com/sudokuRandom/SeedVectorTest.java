@@ -0,0 +1,51 @@
+package com.sudokuRandom;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// Pins seeded boards to the games SEED_VERSION 1 made when it shipped.  A
+// seed stands for its game wherever it is stored, so if this fails the
+// change that broke it must either be undone or come with a new
+// SEED_VERSION and new vectors here.
+public class SeedVectorTest {
+    // { seed, difficulty }, then the puzzle and its solution
+    private static final long[][] KEYS = { {0, 1}, {1, 2}, {42, 3}, {-1, 4}, {123456789, 3} };
+    private static final String[][] GAMES = {
+        { ".4..2537.937.4....56.37...4..4.936...1958..37..516..2.72...954..582....119...72.8",
+          "841925376937648152562371984284793615619582437375164829726819543458236791193457268" },
+        { "67....5..5...21...281......8.2..6.7.1...37....4..5...67231....4...6..832.6.29.71.",
+          "679348521534721689281569347852916473196437258347852196723185964915674832468293715" },
+        { ".2.5...8...5.3.71....7....2....2...59..8.1......9.3248.8.....2456..8...1..7.9.85.",
+          "723519486645238719891764532438627195952841367176953248389175624564382971217496853" },
+        { ".824675..1..8.246946..13..7..61..8.2.1..7.3..34.5.9.767..2.56316.37.19.8.2.39.74.",
+          "982467513137852469465913287576134892219678354348529176794285631653741928821396745" },
+        { "2...1.9......3.5..4......278.51........87..9..7...2.36..9..6.43..7....5.56..8....",
+          "253718964796234581418695327835169472642873195971452836189526743327941658564387219" }
+    };
+
+    @Test
+    public void VersionIsPinned() {
+        assertEquals("new SEED_VERSION: replace the vectors below", 1, Board.SEED_VERSION);
+    }
+
+    @Test
+    public void SeedsRebuildTheirGames() {
+        int[] nums = new int[81];
+        for (int i = 0; i < KEYS.length; ++i) {
+            Board board = new Board((int) KEYS[i][1], KEYS[i][0]);
+            String key = "seed " + KEYS[i][0] + ", difficulty " + KEYS[i][1];
+            board.getBoard(nums);
+            assertEquals(key, GAMES[i][0], Format(nums));
+            board.getSolution(nums);
+            assertEquals(key, GAMES[i][1], Format(nums));
+        }
+    }
+
+    private static String Format(int[] nums) {
+        StringBuilder text = new StringBuilder(81);
+        for (int value : nums)
+            text.append(value == 0 ? '.' : (char) ('0' + value));
+        return text.toString();
+    }
+}
@@ -7,8 +7,7 @@ import android.os.Bundle;
 import android.view.Gravity;
 import android.widget.Toast;
 
-import com.sudokuRandom.Board;
-import com.sudokuSolver.SudokuSolver;
+import com.sudokuSolver.SolvabilityTracker;
 
 public class Game extends Activity
 {
@@ -20,9 +19,8 @@ public class Game extends Activity
         private int solution[] = new int[81];
         private boolean startLocations[] = new boolean[81];
         private GameView gameView;
-        public Board board;
         public boolean done = false;
-        private final SudokuSolver solver = new SudokuSolver();
+        private SolvabilityTracker tracker; // tells whether each move leaves the puzzle solvable
         int index;
 
 
@@ -36,17 +34,16 @@ public class Game extends Activity
                 super.onCreate(savedInstanceState);
                 setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_PORTRAIT); // lock screen rotation
                 int difficulty = getIntent().getIntExtra("difficulty", EASY);
-                getNewSudoku(difficulty);
+                PuzzleSupply.get(getFilesDir()).take(difficulty, sudoku, solution); // ready-made, so this never waits on generation
+                tracker = new SolvabilityTracker(sudoku);
+                tracker.KnownSolution(solution);
 
                 populateAssignedArray();
         for(int i = 0; i < 81; i++)
         {
         	if(sudoku[i] != 0)
         		startLocations[i] = true;
-                        
-            solution[i] = sudoku[i];
         }
-        		solver.Solve(solution);
                 gameView = new GameView(this);
 
                 setContentView(gameView);
@@ -67,6 +64,16 @@ public class Game extends Activity
 
         setValue(x, y, value);
         populateAssignedArray();
+        if (value != 0)
+            tracker.Place(y * 9 + x, value);
+        else
+            tracker.Clear(y * 9 + x);
+        if (value != 0 && !tracker.Solvable())
+        {
+            Toast toast4 = Toast.makeText(this, "That move leaves the puzzle unsolvable", Toast.LENGTH_SHORT);
+            toast4.setGravity(Gravity.CENTER, 0, 0);
+            toast4.show();
+        }
         congratulate();
 
         return true;
@@ -141,29 +148,6 @@ public class Game extends Activity
         return assigned[x][y];
     }
 
-        // generates a new sudoku puzzle using the Board object in com.sudokuRandom
-        private void getNewSudoku(int difficulty) {
-                switch (difficulty) {
-        case RANDOM:
-            board = new Board(4);  //makes a random-difficulty board (initial difficulty is inconsequential)
-            board.getBoard(sudoku);
-            break;
-                case HARD:
-            board = new Board(3);
-            board.getBoard(sudoku);
-            break;
-                case MEDIUM:
-            board = new Board(2);
-            board.getBoard(sudoku);
-            break;
-                case EASY:
-        default:
-            board = new Board(1);
-            board.getBoard(sudoku);
-                        break;
-                }
-        }
-
     private void setValue(int x, int y, int value) {
         sudoku[y * 9 + x] = value;
     }
@@ -182,6 +166,12 @@ public class Game extends Activity
         return solution;
     }
 
+    // whether the values on the board can still be completed to a solution
+    public boolean isSolvable()
+    {
+        return tracker.Solvable();
+    }
+
     public void congratulate() //prints "Puzzle Finished!" if all the tiles are filled accurately
     {
         for(int i = 0; i < sudoku.length; i++)
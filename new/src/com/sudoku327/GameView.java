@@ -1,6 +1,7 @@
 package com.sudoku327;
 
-import com.sudokuSolver.SudokuSolver;
+import com.sudokuSolver.BitmaskSolver;
+import com.sudokuSolver.SudokuEngine;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
@@ -21,7 +22,7 @@ public class GameView extends View
     private float _width;
     private float _height;
     private final Rect _selectionRectangle = new Rect();
-    private final SudokuSolver solver = new SudokuSolver();//initiates solver
+    private final SudokuEngine solver = new BitmaskSolver();//initiates solver
 
     // these Paints are used to color UI elements
     private final Paint _background = new Paint();
@@ -147,9 +148,9 @@ public class GameView extends View
 
     public void solveSudoku()
     {
-        //calls solver
-        solver.Solve(_game.retGame());
-        if(!solver.Solve(_game.retGame()))
+        //calls solver; it solves the grid in place, so once is enough,
+        //and not at all if the game already knows the board is unsolvable
+        if(!_game.isSolvable() || !solver.Solve(_game.retGame()))
         {
             Toast toast = Toast.makeText(_game, "Puzzle is unsolvable in current form. You've made a mistake!", Toast.LENGTH_LONG);
             toast.setGravity(Gravity.CENTER, 0, 0);
@@ -0,0 +1,211 @@
+package com.sudoku327;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sudokuRandom.Board;
+import com.sudokuRandom.GridGenerator;
+
+// Keeps a few ready-made puzzles of each difficulty, with their solutions,
+// so starting a game never waits for one to be generated.  Taking a puzzle
+// saves the pools to the app's files directory at once, 52 bytes a puzzle,
+// so a puzzle is never served twice even if the process is killed, and the
+// next launch can serve a puzzle before the background thread has run at
+// all.  It also schedules upkeep on a low-priority background thread: any
+// pool that has dropped below LOW_WATER is topped up to CAPACITY, and the
+// pools are saved again.  Only if a pool is empty is a puzzle generated
+// on the caller's thread.
+public class PuzzleSupply
+{
+    public static final int CAPACITY = 6;  // puzzles kept per difficulty
+    public static final int LOW_WATER = 3; // a pool smaller than this is refilled
+
+    private static final String FILE_NAME = "puzzles.bin";
+    private static final int MAGIC = 0x53755031; // "SuP1"
+    private static final int DIFFICULTIES = 4; // Game.EASY to Game.RANDOM
+    private static final int RECORD = 52; // 41 bytes of solution, two digits a byte, then 11 of given flags
+
+    private static PuzzleSupply instance;
+
+    private final File file;
+    private final ArrayList<ArrayBlockingQueue<byte[]>> pools = new ArrayList<ArrayBlockingQueue<byte[]>>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "PuzzleSupply");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // keep the UI thread smooth
+            return thread;
+        }
+    });
+    private final Runnable upkeep = new Runnable() {
+        public void run() {
+            scheduled.set(false); // takes from now on schedule another run
+            refill();
+            save();
+        }
+    };
+
+    private PuzzleSupply(File directory)
+    {
+        file = new File(directory, FILE_NAME);
+        for (int i = 0; i < DIFFICULTIES; ++i)
+            pools.add(new ArrayBlockingQueue<byte[]>(CAPACITY));
+        load();
+        schedule();
+    }
+
+    // the app's supply, loading the saved pools on first use
+    public static synchronized PuzzleSupply get(File directory)
+    {
+        if (instance == null)
+            instance = new PuzzleSupply(directory);
+        return instance;
+    }
+
+    // fills sudoku with a puzzle of the given difficulty (Game.EASY to
+    // Game.RANDOM, anything else meaning Game.EASY) and solution with its
+    // only solution
+    public void take(int difficulty, int[] sudoku, int[] solution)
+    {
+        if (difficulty < Game.EASY || difficulty > Game.RANDOM)
+            difficulty = Game.EASY; // as Game always did with an unknown difficulty
+        byte[] record = pools.get(difficulty).poll();
+        if (record == null)
+            record = generate(difficulty); // the pool ran dry; make one now
+        else
+            save(); // so a launch after the process is killed does not serve it again
+        unpack(record, sudoku, solution);
+        schedule();
+    }
+
+    // runs upkeep on the background thread unless a run is already waiting
+    private void schedule()
+    {
+        if (!scheduled.getAndSet(true))
+            worker.execute(upkeep);
+    }
+
+    private void refill()
+    {
+        for (int difficulty = 0; difficulty < DIFFICULTIES; ++difficulty) {
+            ArrayBlockingQueue<byte[]> pool = pools.get(difficulty);
+            if (pool.size() < LOW_WATER)
+                while (pool.remainingCapacity() > 0)
+                    pool.offer(generate(difficulty));
+        }
+    }
+
+    private static byte[] generate(int difficulty)
+    {
+        int[] sudoku = new int[81];
+        int[] solution = new int[81];
+        Board board = new Board(difficulty + 1, GridGenerator.forThread(), true); // Board counts difficulty from 1
+        board.getBoard(sudoku);
+        board.getSolution(solution);
+        return pack(sudoku, solution);
+    }
+
+    private static byte[] pack(int[] sudoku, int[] solution)
+    {
+        byte[] record = new byte[RECORD];
+        for (int i = 0; i < 81; ++i) {
+            record[i / 2] |= solution[i] << (i % 2 == 0 ? 4 : 0);
+            if (sudoku[i] != 0)
+                record[41 + i / 8] |= 1 << (i % 8);
+        }
+        return record;
+    }
+
+    private static void unpack(byte[] record, int[] sudoku, int[] solution)
+    {
+        for (int i = 0; i < 81; ++i) {
+            solution[i] = (record[i / 2] >> (i % 2 == 0 ? 4 : 0)) & 0xF;
+            sudoku[i] = (record[41 + i / 8] & (1 << (i % 8))) != 0 ? solution[i] : 0;
+        }
+    }
+
+    // reads the pools saved by the last launch, if any; a missing or
+    // damaged file just leaves them empty for upkeep to fill
+    private void load()
+    {
+        if (!file.exists())
+            return;
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC)
+                return;
+            for (int difficulty = 0; difficulty < DIFFICULTIES; ++difficulty) {
+                int count = in.readUnsignedByte();
+                for (int i = 0; i < count; ++i) {
+                    byte[] record = new byte[RECORD];
+                    in.readFully(record);
+                    pools.get(difficulty).offer(record);
+                }
+            }
+        }
+        catch (IOException e) {
+            for (ArrayBlockingQueue<byte[]> pool : pools)
+                pool.clear();
+        }
+        finally {
+            close(in);
+        }
+    }
+
+    // writes the pools to a scratch file, then renames it over the old one
+    // so a launch never reads a half-written file.  Saves take turns, and
+    // each reads the pools only once it has its turn, so the last save to
+    // finish always writes the pools as they are after every take so far.
+    private synchronized void save()
+    {
+        File scratch = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(scratch)));
+            out.writeInt(MAGIC);
+            for (ArrayBlockingQueue<byte[]> pool : pools) {
+                Object[] records = pool.toArray();
+                out.writeByte(records.length);
+                for (Object record : records)
+                    out.write((byte[]) record);
+            }
+            out.close();
+            out = null;
+            scratch.renameTo(file);
+        }
+        catch (IOException e) {
+            scratch.delete(); // the old file, if any, is still good
+        }
+        finally {
+            close(out);
+        }
+    }
+
+    private static void close(Closeable stream)
+    {
+        if (stream == null)
+            return;
+        try {
+            stream.close();
+        }
+        catch (IOException e) {
+            // nothing more to do
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class Sudoku extends Activity implements OnClickListener
 
                 View aboutButton = findViewById(R.id.about_button);
                 aboutButton.setOnClickListener(this); 
+
+                PuzzleSupply.get(getFilesDir()); // loads saved puzzles and starts topping the pools up
         }
 
         //function tells the program where to go once a button has been clicked
@@ -1,80 +1,192 @@
 /*
  * This object generates a sudoku game using a pre-solved game as a seed that is then shuffled.
  * It can create easy, medium, and hard games, or can generate a game of random difficulty.
- * This method of generation does not need to make use of zones, only rows and columns. 
- * 
+ * This method of generation does not need to make use of zones, only rows and columns.
+ * Given a GridGenerator, it starts from a freshly generated grid instead of the shuffled seed,
+ * so its games are not all one grid in disguise.
+ * Clues are normally removed at random, which can leave a game with more than one solution. In
+ * unique mode each removal is checked with a solution counter instead, and undone if the game
+ * would no longer have exactly one solution.
+ *
+ * The grid is a packed array of 81 bytes, 0 for a hole, and the number of values in each row
+ * and column is kept up to date as values are added and removed, so checking a bound is a
+ * lookup rather than a count.
+ *
+ * A seeded board is a pure function of a 64-bit seed and a difficulty: the same pair gives the
+ * same game on every device and in every release, so a game can be stored, shared or cached as
+ * its seed alone and rebuilt in a fraction of a millisecond. SEED_VERSION 1 is:
+ *      1. r = new SplitMix64(seed); every random number below is drawn from r, in this order.
+ *      2. The full grid is GridGenerator(r).generate, a depth-first search that fills one cell
+ *         per level. The cell is found by scanning the empty cells from index 0 up: the first
+ *         one with at most one candidate is taken at once, and if there is none, the
+ *         lowest-index cell with the fewest candidates. A cell with no candidates is a dead end,
+ *         and the search backs out of it without drawing. Otherwise the cell's count candidates
+ *         are listed in ascending order and, for i from 0, the one at i + r.nextInt(count - i)
+ *         is swapped to place i and tried, so a forced cell still draws r.nextInt(1). When a
+ *         digit leads to a dead end the next i is tried, and when all have failed the search
+ *         backs out a level.
+ *      3. givens and bound are drawn as in the difficulty switch in generate().
+ *      4. The cell indexes 0-80 are shuffled by Fisher-Yates, i from 80 down to 1 swapping
+ *         order[i] with order[r.nextInt(i + 1)].
+ *      5. In that order, while more than givens clues remain, each clue whose row and column hold
+ *         more than bound values is removed if the game still has exactly one solution.
+ * Any change to these steps, or to SplitMix64, must come with a new SEED_VERSION.
+ *
  * The following public functions are available:
  *              Board(int difficulty)
+ *              Board(int difficulty, GridGenerator generator)
+ *              Board(int difficulty, GridGenerator generator, boolean unique)
+ *              Board(int difficulty, long seed)
  *              void getBoard(int [] nums)
- * The following functions are private:
+ *              void getSolution(int [] nums)
+ *              long getGenerationNanos()
+ * The following function is package-private so benchmarks can reach it:
  *              void shuffle()
- *              void randomizeIndexes(int givens, int [] randIndexes)
- *              void pickHoles(int givens, int [] randIndexes)
+ * The following functions are private:
+ *              void generate(int difficulty, GridGenerator generator, boolean unique)
+ *              void permuteLines(int [] order)
+ *              void pickHoles(int givens)
  *              void checkBound(int givens, int bound)
- *              void addValue(House house)
- *              void removeValue(House house, int bound)
+ *              void addValue(int line, boolean isRow)
+ *              void removeValue(boolean isRow, int bound)
+ *              void removeUniquely(int givens, int bound)
+ *              void setValue(int index, int value)
+ *              void countValues()
  */
 package com.sudokuRandom;
-import java.util.Random; // necessary to generate pseudo-random numbers
+import com.sudokuSolver.BitmaskSolver; // counts solutions in unique mode
 
 public class Board
 {
         // Member Variables
-        Tile [] boxes = new Tile[81]; // Contains the boxes which make up the game
-        House [] rows = new House[9]; // Contains the rows in which the tiles lives
-        House [] cols = new House[9]; // Contains the columns in which the tiles lives
-        int [] seed = {9, 3, 2, 5, 7, 8, 6, 4, 1,
-                                   4, 8, 5, 1, 2, 6, 7, 9, 3,
-                                   1, 6, 7, 9, 4, 3, 8, 2, 5,
-                                   7, 9, 1, 3, 6, 2, 4, 5, 8,
-                                   8, 5, 6, 4, 1, 9, 3, 7, 2,
-                                   2, 4, 3, 7, 8, 5, 9, 1, 6,
-                                   3, 7, 8, 2, 9, 1, 5, 6, 4,
-                                   6, 1, 4, 8, 5, 7, 2, 3, 9,
-                                   5, 2, 9, 6, 3, 4, 1, 8, 7}; // This array is used to seed the pseudo-random game generation.
-        int [] solution = new int[81]; // This holds the resultant game solution grid after shuffling the seed array.
-        Random rand = new Random(); // Random number generator taken from java.util.Random
-        int randNum; // Holds a randomly generated number
-        
-        
+        public static final int SEED_VERSION = 1; // The version of the seeded algorithm described above
+        static final byte [] seed = {9, 3, 2, 5, 7, 8, 6, 4, 1,
+                                     4, 8, 5, 1, 2, 6, 7, 9, 3,
+                                     1, 6, 7, 9, 4, 3, 8, 2, 5,
+                                     7, 9, 1, 3, 6, 2, 4, 5, 8,
+                                     8, 5, 6, 4, 1, 9, 3, 7, 2,
+                                     2, 4, 3, 7, 8, 5, 9, 1, 6,
+                                     3, 7, 8, 2, 9, 1, 5, 6, 4,
+                                     6, 1, 4, 8, 5, 7, 2, 3, 9,
+                                     5, 2, 9, 6, 3, 4, 1, 8, 7}; // This array is used to seed the pseudo-random game generation.
+        byte [] grid = new byte[81]; // The game, row by row, with 0 for a hole
+        byte [] solution = new byte[81]; // This holds the resultant game solution grid after shuffling the seed array.
+        int [] rowCounts = new int[9]; // The number of values in each row
+        int [] colCounts = new int[9]; // The number of values in each column
+        int [] order = new int[81]; // Cell indexes, shuffled to pick clues; any order will do to start
+        SplitMix64 rand; // The source of every random choice
+        long generationNanos; // How long the constructor took to generate the game
+
+        // Scratch space for shuffle
+        private byte [] scratch = new byte[81];
+        private int [] rowOrder = new int[9];
+        private int [] colOrder = new int[9];
+        private byte [] digits = new byte[10];
+        private int [] three = new int[3];
+
+
         /*
          * Public functions.
          */
-         
-         
+
+
         /*
          * This constructor accepts a difficulty level and generates a random sudoku board of according difficulty.
          */
         public Board(int difficulty)
         {
-                int rowNum; // Holds the row number of the current box
-                int colNum; // Holds the column number of the current box
-                int givens = 30; // This value is just to make sure the program runs, but 30 will never be used
-                int bound = 0; // Defaults to 0, which will only be used in the completely random case
-                
-                // Instantiate each member of the House Arrays (27 Houses in total)
-                for (int i = 0; i < 9; i++)
+                this(difficulty, null);
+        }
+
+        /*
+         * This constructor does the same, but starts from a grid made by generator rather than by shuffling
+         * the seed. If generator is null, the seed is shuffled as before.
+         */
+        public Board(int difficulty, GridGenerator generator)
+        {
+                this(difficulty, generator, false);
+        }
+
+        /*
+         * This constructor does the same, and if unique is true it only removes clues that leave the game
+         * with exactly one solution. Such a game may keep a few more givens than the difficulty asks for,
+         * if no more can be removed without breaking uniqueness.
+         */
+        public Board(int difficulty, GridGenerator generator, boolean unique)
+        {
+                rand = SplitMix64.unseeded();
+                generate(difficulty, generator, unique);
+        }
+
+        /*
+         * This constructor generates the game identified by seed at the given difficulty, in unique mode
+         * and from a generated grid, by the algorithm described above.
+         */
+        public Board(int difficulty, long seed)
+        {
+                rand = new SplitMix64(seed);
+                generate(difficulty, new GridGenerator(rand), true);
+        }
+
+        /*
+         * This function will fill an array of integers with the current values of each tile.
+         * It must be public as this is how the rest of the app will interact with this object.
+         * Note: It will fill an array in place when it is called, thus it MUST be called with an 81 member array.
+         * If the function is called with a shorter array, it will return an IndexOutOfBounds exception.
+         */
+        public void getBoard(int[] nums)
+        {
+                for (int i = 0; i < 81; i++)
                 {
-                        rows[i] = new House('r'); // 9 rows
-                        cols[i] = new House('c'); // 9 columns
+                        nums[i] = grid[i];
                 }
-                
-                // Create all 81 boxes and place them in their Houses
+        }
+
+        /*
+         * This function fills an 81 member array with the solved grid the game was made from.
+         * In unique mode it is the game's only solution.
+         */
+        public void getSolution(int[] nums)
+        {
                 for (int i = 0; i < 81; i++)
                 {
-                        boxes[i] = new Tile(i, seed[i]);
-                        rowNum = (i/9); // Get the row number it belongs in.
-                        colNum = (i%9); // Get the column number it belongs in.
-                        
-                        // Fill rows
-                        rows[rowNum].setMember(colNum, boxes[i]); // Put the box into the correct column within its row.
-                        boxes[i].setRow(rowNum); // Give the box object its row number.
-                        
-                        // Fill columns
-                        cols[colNum].setMember(rowNum, boxes[i]); // Put the box into the correct row within its column.
-                        boxes[i].setCol(colNum); // Give the box object its column number.
+                        nums[i] = solution[i];
+                }
+        }
+
+        /*
+         * This function returns how long the constructor took to generate this game, in nanoseconds.
+         */
+        public long getGenerationNanos()
+        {
+                return generationNanos;
+        }
+
+        /*
+         * Private functions.
+         */
+
+        /*
+         * This function does the work of the constructors, drawing every random number from rand.
+         */
+        private void generate(int difficulty, GridGenerator generator, boolean unique)
+        {
+                long start = System.nanoTime();
+                int givens = 30; // This value is just to make sure the program runs, but 30 will never be used
+                int bound = 0; // Defaults to 0, which will only be used in the completely random case
+
+                if (generator != null)
+                {
+                        int [] nums = new int[81];
+                        generator.generate(nums);
+                        for (int i = 0; i < 81; i++)
+                                grid[i] = (byte) nums[i];
                 }
-                
+                else
+                        System.arraycopy(seed, 0, grid, 0, 81);
+                for (int i = 0; i < 81; i++)
+                        order[i] = i;
+
                 /*
                  * The difficulty level is determined by the number of givens and the bound.
                  * givens = the number of starting positions given to the user
@@ -89,227 +201,119 @@ public class Board
                 switch(difficulty)
                 {
                         case 1:
-                                givens = Math.abs(rand.nextInt()) % 10 + 40;
+                                givens = rand.nextInt(10) + 40;
                                 bound = 4;
                                 break;
                         case 2:
-                                givens = Math.abs(rand.nextInt()) % 8 + 32;
+                                givens = rand.nextInt(8) + 32;
                                 bound = 3;
                                 break;
                         case 3:
-                                givens = Math.abs(rand.nextInt()) % 5 + 27;
+                                givens = rand.nextInt(5) + 27;
                                 bound = 2;
                                 break;
                         case 4:
-                                givens = Math.abs(rand.nextInt()) % 23 + 27;
+                                givens = rand.nextInt(23) + 27;
                                 break;
                         default:
                                 break;
                 }
-                int [] randIndexes = new int[givens]; // Contains which of the 81 boxes will be seeded with a number
-                randomizeIndexes(givens, randIndexes); // Fill with random indexes between 0 and 80
-                
-                shuffle(); // Shuffle the board to get a new game.
-                getBoard(solution); // Record the solution to the new game.
-                pickHoles(givens, randIndexes); // Pick holes in the board to get a starting game.
-                checkBound(givens, bound); // Even out board to help control the difficulty level.
-        }
-        
-        /*
-         * This function will fill an array of integers with the current values of each tile.
-         * It must be public as this is how the rest of the app will interact with this object.
-         * Note: It will fill an array in place when it is called, thus it MUST be called with an 81 member array.
-         * If the function is called with a shorter array, it will return an IndexOutOfBounds exception.
-         */
-        public void getBoard(int[] nums)
-        {
-                for (int i = 0; i < 81; i++)
+
+                if (generator == null)
+                        shuffle(); // Shuffle the board to get a new game.
+                System.arraycopy(grid, 0, solution, 0, 81); // Record the solution to the new game.
+                if (unique)
                 {
-                        nums[i] = boxes[i].getValue();
+                        countValues();
+                        removeUniquely(givens, bound); // Remove clues one at a time, keeping the solution unique.
                 }
+                else
+                {
+                        pickHoles(givens); // Pick holes in the board to get a starting game.
+                        checkBound(givens, bound); // Even out board to help control the difficulty level.
+                }
+                generationNanos = System.nanoTime() - start;
         }
-        
-        /*
-         * Private functions.
-         */
-        
+
         /*
-         * This function will shuffle the seed board a random number of times between 0 and 1000.
-         * It uses 3 propagation techniques in order to do this:
+         * This function will shuffle the board with the transformations that keep a sudoku valid:
          * 1) Mutual exchange everywhere in the puzzle of 2 digits
          * 2) Mutual exchange of two columns/rows in the same column/row of blocks
          * 3) Mutual exchange of two columns/rows of blocks
+         * Any sequence of these is the same as one permutation of the rows, one of the columns and
+         * one relabelling of the digits, so one of each is drawn at random and all three are applied
+         * in a single pass over the grid.
          */
-        private void shuffle()
+        void shuffle()
         {
-                int repetitions = Math.abs(rand.nextInt()%1000);
-                int propagation, spot1, spot2, temp;
-                for(int i = 0; i < repetitions; i++)
+                permuteLines(rowOrder);
+                permuteLines(colOrder);
+
+                // Relabel the digits with a random permutation of 1-9 (Fisher-Yates); holes stay 0
+                digits[0] = 0;
+                for (int i = 1; i <= 9; i++)
                 {
-                        propagation = Math.abs(rand.nextInt()%5);
-                        switch(propagation)
-                        {
-                        
-                                case 0:
-                                        // mutual exchange of two digits
-                                        spot1 = Math.abs(rand.nextInt()%9)+1;
-                                        do
-                                        {
-                                                spot2 = Math.abs(rand.nextInt()%9)+1;
-                                        }while(spot1 == spot2);
-                                        for(int j = 0; j < 81; j++)
-                                        {
-                                                if(boxes[j].getValue() == spot1)
-                                                        boxes[j].setValue(spot2);
-                                                else if(boxes[j].getValue() == spot2)
-                                                        boxes[j].setValue(spot1);
-                                        }
-                                        break;
-                                        
-                                case 1:
-                                        // mutual exchange of two columns in same column of blocks
-                                        spot1 = Math.abs(rand.nextInt()%9);
-                                        if((spot1%3)==0)
-                                        {
-                                                spot2 = spot1 + Math.abs(rand.nextInt()%2)+1;
-                                        }
-                                        else if((spot1%3) == 1)
-                                        {
-                                                temp = Math.abs(rand.nextInt()%2);
-                                                if(temp == 0)
-                                                        spot2 = spot1 - 1;
-                                                else
-                                                        spot2 = spot1 + 1;
-                                        }
-                                        else
-                                        {
-                                                spot2 = spot1 - (Math.abs(rand.nextInt()%2)+1);
-                                        }
-                                        for(int j = 0; j < 9; j++)
-                                        {
-                                                temp = cols[spot1].getMemberValue(j);
-                                                cols[spot1].setMemberValue(j, cols[spot2].getMemberValue(j));
-                                                cols[spot2].setMemberValue(j, temp);
-                                        }
-                                        break;
-                                        
-                                case 2:
-                                        // mutual exchange of two rows in same row of blocks
-                                        spot1 = Math.abs(rand.nextInt()%9);
-                                        if((spot1%3)==0)
-                                        {
-                                                spot2 = spot1 + Math.abs(rand.nextInt()%2)+1;
-                                        }
-                                        else if((spot1%3) == 1)
-                                        {
-                                                temp = Math.abs(rand.nextInt()%2);
-                                                if(temp == 0)
-                                                        spot2 = spot1 - 1;
-                                                else
-                                                        spot2 = spot1 + 1;
-                                        }
-                                        else
-                                        {
-                                                spot2 = spot1 - (Math.abs(rand.nextInt()%2)+1);
-                                        }
-                                        for(int j = 0; j < 9; j++)
-                                        {
-                                                temp = rows[spot1].getMemberValue(j);
-                                                rows[spot1].setMemberValue(j, rows[spot2].getMemberValue(j));
-                                                rows[spot2].setMemberValue(j, temp);
-                                        }
-                                        break;
-                                
-                                case 3:
-                                        // mutual exchange of two columns of blocks
-                                        spot1 = 3*Math.abs(rand.nextInt()%3);
-                                        do
-                                        {
-                                                spot2 = 3*Math.abs(rand.nextInt()%3);
-                                        }while(spot1 == spot2);
-                                        for(int j = 0; j < 3; j++)
-                                        {
-                                                for(int k = 0; k < 9; k++)
-                                                {
-                                                        temp = cols[spot1+j].getMemberValue(k);
-                                                        cols[spot1+j].setMemberValue(k, cols[spot2+j].getMemberValue(k));
-                                                        cols[spot2+j].setMemberValue(k, temp);
-                                                }
-                                        }
-                                        break;
-                                
-                                case 4:
-                                        // mutual exchange of two rows of blocks
-                                        spot1 = 3*Math.abs(rand.nextInt()%3);
-                                        do
-                                        {
-                                                spot2 = 3*Math.abs(rand.nextInt()%3);
-                                        }while(spot1 == spot2);
-                                        for(int j = 0; j < 3; j++)
-                                        {
-                                                for(int k = 0; k < 9; k++)
-                                                {
-                                                        temp = rows[spot1+j].getMemberValue(k);
-                                                        rows[spot1+j].setMemberValue(k, rows[spot2+j].getMemberValue(k));
-                                                        rows[spot2+j].setMemberValue(k, temp);
-                                                }
-                                        }
-                                        break;
-                                default:
-                                        break;
-                        }
+                        int j = 1 + rand.nextInt(i);
+                        digits[i] = digits[j];
+                        digits[j] = (byte) i;
                 }
+
+                System.arraycopy(grid, 0, scratch, 0, 81);
+                for (int r = 0; r < 9; r++)
+                {
+                        int from = rowOrder[r] * 9;
+                        for (int c = 0; c < 9; c++)
+                                grid[r * 9 + c] = digits[scratch[from + colOrder[c]]];
+                }
+                countValues();
         }
-        
-        /* 
-         * This function will pick a number of random boxes based on int givens.
-         * randNum will be used to hold an index value.
+
+        /*
+         * This function fills order with a random permutation of the 9 rows (or columns) that keeps each
+         * band of 3 together: the bands are permuted, then the lines within each band.
          */
-        private void randomizeIndexes(int givens, int [] randIndexes)
+        private void permuteLines(int [] order)
         {
-                int counter = 0;
-                boolean advance; // Defaults to false
-                // Using a do-while loop for more precise control of when to increment counter
-                do
+                for (int i = 0; i < 3; i++)
+                {
+                        int j = rand.nextInt(i + 1);
+                        three[i] = three[j];
+                        three[j] = i;
+                }
+                for (int band = 0; band < 3; band++)
                 {
-                        randNum = Math.abs(rand.nextInt() % 81); // Get a value between 0 and 80
-                        advance = true; // Reset advance to true and only make it false if the index already has been picked
-                        for (int i = counter-1; i >= 0; i--) // Check all the indexes to see if this one has already been picked
+                        int first = band * 3;
+                        for (int i = 0; i < 3; i++)
                         {
-                                if(randIndexes[i] == randNum) // If it has been picked, then stop checking and make advance false
-                                {
-                                        advance = false;
-                                        break;
-                                }
+                                int j = rand.nextInt(i + 1);
+                                order[first + i] = order[first + j];
+                                order[first + j] = three[band] * 3 + i;
                         }
-                        // Whether or not the index has already been picked, set it as a value in the array.
-                        // If the index has already been picked, the next time through the loop this index will be replaced with a new one.
-                        randIndexes[counter] = randNum;
-                        if(advance)
-                                counter++;
-                } while(counter < givens);
+                }
         }
-        
+
         /*
          * This function removes a large number of the answers in order to seed a game.
-         * If a box's index is not included in the array randIndexes, then remove that box's value.
-         * Otherwise, the box gets to keep its value.
+         * It picks the givens boxes that keep their values with a partial Fisher-Yates shuffle of order,
+         * which chooses each of them uniformly from the boxes not chosen yet, and empties the rest.
          */
-        private void pickHoles(int givens, int [] randIndexes)
+        private void pickHoles(int givens)
         {
-                boolean reserved = false;
-                for(int i = 0; i < 81; i++)
+                for (int i = 0; i < givens; i++)
                 {
-                        reserved = false;
-                        for (int j = 0; j < randIndexes.length; j++)
-                        {
-                                if (i == randIndexes[j])
-                                        reserved = true;
-                        }
-                        if(!reserved)
-                                boxes[i].removeValue();
+                        int j = i + rand.nextInt(81 - i);
+                        int box = order[j];
+                        order[j] = order[i];
+                        order[i] = box;
                 }
+
+                for (int i = 0; i < 81; i++)
+                        grid[i] = 0;
+                for (int i = 0; i < givens; i++)
+                        grid[order[i]] = solution[order[i]];
+                countValues();
         }
+
         /*
          * This function checks if any rows or columns are too small, then fixes their size accordingly.
          * While doing this, it finds the longest row or column and removes a value from it - this makes sure that
@@ -328,95 +332,137 @@ public class Board
                         {
                                 // If a row is too small, add a value to it & remove a value from the longest row.
                                 // Repeat this until the row is no longer too small.
-                                while (rows[i].length() < bound)
+                                while (rowCounts[i] < bound)
                                 {
                                         tooSmallCount++;
-                                        addValue(rows[i]);
-                                        // Next find the row with most values and remove 1 value from that row.
-                                        int largestLength = 0; // Keeps track of the length of the largest row
-                                        int largestIndex = 0; // Keeps track of the index of the largest row
-                                        for (int j = 0; j < 9; j++)
-                                        {
-                                                // Compares the length of each row to find the largest
-                                                if (rows[j].length() > largestLength)
-                                                {
-                                                        largestLength = rows[j].length();
-                                                        largestIndex = j;
-                                                }
-                                        }
-                                        removeValue(rows[largestIndex], bound); // Remove 1 value from the largest row
+                                        addValue(i, true);
+                                        removeValue(true, bound);
                                 }
                                 // This while loop does exactly the same thing for columns as was done for rows.
-                                while(cols[i].length() < bound)
+                                while (colCounts[i] < bound)
                                 {
                                         tooSmallCount++;
-                                        addValue(cols[i]);
-                                        int largestLength = 0;
-                                        int largestIndex = 0;
-                                        for (int j = 0; j < 9; j++)
-                                        {
-                                                if (cols[j].length() > largestLength)
-                                                {
-                                                        largestLength = cols[j].length();
-                                                        largestIndex = j;
-                                                }
-                                        }
-                                        removeValue(cols[largestIndex], bound);
+                                        addValue(i, false);
+                                        removeValue(false, bound);
                                 }
                         }
                 } while(tooSmallCount != 0);
         }
-        
-        /* 
-         * This function will add another value to a house.
+
+        /*
+         * This function will put back the value of a random hole in a row (or column).
          * This function will only be called to make sure each house has at least the minimum number of values (bound).
          */
-        private void addValue(House house)
+        private void addValue(int line, boolean isRow)
         {
-                Tile tile; // This will be used to point to the tile that will have a value added to it.
-                boolean success = false; // This keeps track of whether or not a new value was successfully added to the house.
-                int tileID;
-                // Keep trying to add a new value until the function succeeds.
-                // It will not succeed if the position in which it is trying to add a new value is already occupied.
-                do
+                int holes = 9 - (isRow ? rowCounts[line] : colCounts[line]);
+                int skip = rand.nextInt(holes); // Which of the holes to fill
+                for (int i = 0; i < 9; i++)
                 {
-                        randNum = Math.abs(rand.nextInt()%9); // Get a random position in the House.
-                        if(!(house.hasMember(randNum))) // Check if that position already has a value.
+                        int index = isRow ? line * 9 + i : i * 9 + line;
+                        if (grid[index] == 0 && skip-- == 0)
                         {
-                                // Will only get here if the position does not already have a value.
-                                tileID = house.getMember(randNum).getId();
-                                boxes[tileID].setValue(solution[tileID]);
-                                success = true; // Indicate that the function succeeded.
+                                setValue(index, solution[index]);
+                                return;
                         }
-                } while (!success);
+                }
         }
-        
+
         /*
-         * This function will remove a value from a house.
+         * This function will remove a value from the row (or column) with the most values: the first one
+         * whose column (or row) has more than bound values.
          * This function will only be called to make sure the number of givens doesn't change.
          */
-        private void removeValue(House house, int bound)
+        private void removeValue(boolean isRow, int bound)
         {
-                Tile tile; // This will be used to point to the tile that will have a value removed from it.
-                for (int i = 0; i < 9; i++) // Cycle through all the members of the house until find one that can be removed.
+                int [] counts = isRow ? rowCounts : colCounts;
+                int [] crossCounts = isRow ? colCounts : rowCounts;
+                int largestIndex = 0; // Keeps track of the index of the largest row or column
+                for (int j = 1; j < 9; j++)
                 {
-                        tile = house.getMember(i); // Points to the current member of the house.
-                        if(tile.hasValue())
+                        if (counts[j] > counts[largestIndex])
+                                largestIndex = j;
+                }
+
+                for (int i = 0; i < 9; i++) // Cycle through the line until finding a value that can be removed.
+                {
+                        int index = isRow ? largestIndex * 9 + i : i * 9 + largestIndex;
+                        if (grid[index] != 0 && crossCounts[i] > bound)
                         {
-                                // Only get here if the tile has a value.
-                                if(house.getType() == 'r' && cols[tile.getCol()].length() > bound)
-                                {
-                                        // Only get here if the house is a row and the tile is in a large enough column.
-                                        tile.removeValue(tile.getValue()); // Remove the tile.
-                                        break; // break the loop, exit the function
-                                }
-                                else if(house.getType() == 'c' && cols[tile.getRow()].length() > bound)
-                                {
-                                        // Only get here if the house is a column and the tile is in a large enough row.
-                                        tile.removeValue(tile.getValue()); // Remove the tile.
-                                        break; // break the loop, exit the function
-                                }
+                                setValue(index, 0);
+                                break;
+                        }
+                }
+        }
+
+        /*
+         * This function removes clues from the full board, in random order, until only givens are left.
+         * A clue is only removed if its row and column keep more than bound values, and if the game
+         * still has exactly one solution without it; counting stops at 2, which is all that takes.
+         * A removal that breaks uniqueness is undone and the next clue tried, so if every clue has been
+         * tried the game keeps more than givens values.
+         */
+        private void removeUniquely(int givens, int bound)
+        {
+                BitmaskSolver counter = new BitmaskSolver();
+                int [] puzzle = new int[81]; // The game as it stands, for the counter
+                int remaining = 81; // The number of clues still on the board
+                getBoard(puzzle);
+
+                // Shuffle the boxes (Fisher-Yates)
+                for (int i = 80; i > 0; i--)
+                {
+                        int j = rand.nextInt(i + 1);
+                        int box = order[j];
+                        order[j] = order[i];
+                        order[i] = box;
+                }
+
+                for (int i = 0; i < 81 && remaining > givens; i++)
+                {
+                        int index = order[i];
+                        if (rowCounts[index / 9] <= bound || colCounts[index % 9] <= bound)
+                                continue; // Removing this clue would leave its row or column too small
+
+                        puzzle[index] = 0;
+                        if (counter.CountSolutions(puzzle, 2) == 1)
+                        {
+                                setValue(index, 0);
+                                remaining--;
+                        }
+                        else
+                                puzzle[index] = solution[index]; // Put the clue back
+                }
+        }
+
+        /*
+         * This function sets a box of the grid, keeping the row and column counts up to date.
+         */
+        private void setValue(int index, int value)
+        {
+                int change = (value != 0 ? 1 : 0) - (grid[index] != 0 ? 1 : 0);
+                grid[index] = (byte) value;
+                rowCounts[index / 9] += change;
+                colCounts[index % 9] += change;
+        }
+
+        /*
+         * This function counts the values in every row and column from scratch.
+         */
+        private void countValues()
+        {
+                for (int i = 0; i < 9; i++)
+                {
+                        rowCounts[i] = 0;
+                        colCounts[i] = 0;
+                }
+                for (int i = 0; i < 81; i++)
+                {
+                        if (grid[i] != 0)
+                        {
+                                rowCounts[i / 9]++;
+                                colCounts[i % 9]++;
                         }
                 }
         }
-}
\ No newline at end of file
+}
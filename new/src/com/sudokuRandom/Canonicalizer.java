@@ -0,0 +1,450 @@
+/*
+ * This object maps a 9x9 puzzle to its minimum-lexicographic form: of all the puzzles that can be
+ * made from it by the symmetries that keep a sudoku valid, the one that reads smallest row by row
+ * (blanks as 0). Two puzzles have the same canonical form exactly when one can be turned into the
+ * other by those symmetries, so the form can be used to deduplicate corpora and as a cache key.
+ * The symmetries are:
+ *              transposition
+ *              permutations of the 3 bands, and of the 3 rows within each band
+ *              permutations of the 3 stacks, and of the 3 columns within each stack
+ *              relabelling of the digits
+ *
+ * For a fixed arrangement of cells the smallest relabelling numbers the digits in order of first
+ * appearance, so only arrangements need searching. The result is built one row at a time. Every
+ * arrangement that ties for the smallest rows so far is kept, each is extended by every row that
+ * may come next, and only the ties for the smallest next row survive.
+ *
+ * The column order is not fixed up front but refined row by row. Columns of a stack that have
+ * been blank in every row so far are still interchangeable, and so are stacks that have been
+ * entirely blank. Extending an arrangement by a row sorts each such group into its smallest
+ * order (blanks, then digits already labelled, smallest label first, then new digits) and only
+ * the orders that tie, new digits among themselves, are tried separately. Real puzzles then leave
+ * a handful of arrangements after the first row or two, which keeps the search short.
+ *
+ * The following public functions are available:
+ *              Canonicalizer()
+ *              void canonicalize(int [] puzzle, int [] canonical)
+ */
+package com.sudokuRandom;
+import java.util.Arrays;
+
+public class Canonicalizer
+{
+        // Member Variables
+        private static final int NEW = 10; // Sorts a digit that has no label yet after every labelled one
+        private static final int ALL_FREE = 0xDB; // Columns 0-1, 1-2, 3-4, 4-5, 6-7 and 7-8 interchangeable
+
+        private int [][] grids = new int[2][81]; // The puzzle and its transpose
+        private int [] bestRow = new int[9]; // The smallest row found so far for the current row position
+
+        /*
+         * The arrangements still tied, in two sets of parallel arrays: the one being extended and the
+         * one being filled. See Beam.
+         */
+        private Beam beam = new Beam();
+        private Beam nextBeam = new Beam();
+
+        /*
+         * Scratch space describing the smallest way to extend one arrangement by one row.
+         * columns[c] is the source column placed at column c. Bit c of columnFree is set when
+         * columns c and c + 1 may still be swapped, and bit s of stackFree when stacks s and s + 1 may.
+         * The groups list the runs whose orders tie in this row and must each be tried: a run of
+         * columns holding new digits, or a run of stacks that read the same.
+         */
+        private int [] columns = new int[9];
+        private int columnFree;
+        private int stackFree;
+        private int [] row = new int[9]; // The extended row, relabelled
+        private int [] groupStart = new int[9];
+        private int [] groupLength = new int[9];
+        private boolean [] groupOfStacks = new boolean[9];
+        private int groups;
+        private int [] keys = new int[3]; // Sort keys of the stacks of a group
+        private int [] order = new int[3]; // Source stacks of a group, sorted by key
+        private int [] run = new int[9]; // Source columns of a run, sorted
+        private int [] labels = new int[10]; // Scratch relabelling
+
+        /*
+         * Public functions.
+         */
+
+        public Canonicalizer()
+        {
+        }
+
+        /*
+         * This function fills canonical with the minimum-lexicographic form of puzzle.
+         * Both arrays must hold 81 values, 0 marking blank cells; puzzle is left unchanged.
+         */
+        public void canonicalize(int [] puzzle, int [] canonical)
+        {
+                for (int i = 0; i < 81; i++)
+                {
+                        grids[0][i] = puzzle[i];
+                        grids[1][(i % 9) * 9 + i / 9] = puzzle[i];
+                }
+
+                // Before any row is chosen, every column and stack is interchangeable
+                beam.size = 0;
+                for (int t = 0; t < 2; t++)
+                {
+                        int n = beam.add();
+                        beam.transposed[n] = t;
+                        for (int c = 0; c < 9; c++)
+                                beam.columns[n * 9 + c] = c;
+                        beam.columnFree[n] = ALL_FREE;
+                        beam.stackFree[n] = 3;
+                        Arrays.fill(beam.labels, n * 10, n * 10 + 10, 0);
+                        beam.next[n] = 1;
+                }
+
+                for (int position = 0; position < 9; position++)
+                {
+                        chooseRow(position);
+                        System.arraycopy(bestRow, 0, canonical, position * 9, 9);
+                        Beam swap = beam;
+                        beam = nextBeam;
+                        nextBeam = swap;
+                }
+        }
+
+        /*
+         * Private functions.
+         */
+
+        /*
+         * This function extends every arrangement in beam by each row allowed at position, and keeps
+         * in nextBeam the extensions that tie for the smallest row, which is left in bestRow.
+         */
+        private void chooseRow(int position)
+        {
+                nextBeam.size = 0;
+                bestRow[0] = Integer.MAX_VALUE; // larger than any row
+                for (int n = 0; n < beam.size; n++)
+                {
+                        for (int source = 0; source < 9; source++)
+                        {
+                                if (!allowed(n, position, source))
+                                        continue;
+
+                                arrange(n, source);
+                                int result = compare();
+                                if (result > 0)
+                                        continue;
+                                if (result < 0)
+                                        nextBeam.size = 0; // a new smallest row
+                                branch(n, position, source, 0, 0);
+                        }
+                }
+        }
+
+        /*
+         * This function says whether source may follow the rows arrangement n has chosen so far: the
+         * next row of the current band, or while starting a band, any row of an unused band.
+         */
+        private boolean allowed(int n, int position, int source)
+        {
+                int [] rows = beam.rows;
+                if (position % 3 != 0)
+                {
+                        if (source / 3 != rows[n * 9 + position - 1] / 3)
+                                return false;
+                        for (int i = position - position % 3; i < position; i++)
+                                if (rows[n * 9 + i] == source)
+                                        return false;
+                        return true;
+                }
+                for (int i = 0; i < position; i += 3)
+                        if (rows[n * 9 + i] / 3 == source / 3)
+                                return false;
+                return true;
+        }
+
+        /*
+         * This function finds the smallest way to extend arrangement n by the given source row. It
+         * fills columns, columnFree, stackFree and the groups of tied orders, and leaves the row,
+         * relabelled, in row.
+         */
+        private void arrange(int n, int source)
+        {
+                int [] grid = grids[beam.transposed[n]];
+                int base = source * 9;
+                int freeColumns = beam.columnFree[n];
+                int freeStacks = beam.stackFree[n];
+                System.arraycopy(beam.columns, n * 9, columns, 0, 9);
+                System.arraycopy(beam.labels, n * 10, labels, 0, 10);
+                columnFree = 0;
+                stackFree = 0;
+                groups = 0;
+
+                int slot = 0;
+                while (slot < 3)
+                {
+                        int last = slot; // the stacks from slot to last are interchangeable
+                        while (last < 2 && (freeStacks & (1 << last)) != 0)
+                                last++;
+
+                        if (last > slot)
+                        {
+                                // Sort the stacks by their smallest reading, keeping their columns
+                                // in source order since they are all still interchangeable
+                                int count = last - slot + 1;
+                                for (int i = 0; i < count; i++)
+                                {
+                                        int stack = columns[(slot + i) * 3] / 3;
+                                        int key = stackKey(grid, base, stack);
+                                        int j = i;
+                                        while (j > 0 && (keys[j - 1] > key || (keys[j - 1] == key && order[j - 1] > stack)))
+                                        {
+                                                keys[j] = keys[j - 1];
+                                                order[j] = order[j - 1];
+                                                j--;
+                                        }
+                                        keys[j] = key;
+                                        order[j] = stack;
+                                }
+                                for (int i = 0; i < count; i++)
+                                {
+                                        for (int c = 0; c < 3; c++)
+                                                columns[(slot + i) * 3 + c] = order[i] * 3 + c;
+                                        arrangeRun(grid, base, (slot + i) * 3, 3);
+                                }
+
+                                // Blank stacks stay interchangeable; equal stacks holding new digits tie
+                                int start = 0;
+                                for (int i = 1; i <= count; i++)
+                                {
+                                        if (i < count && keys[i] == keys[start])
+                                        {
+                                                if (keys[i] == 0)
+                                                        stackFree |= 1 << (slot + i - 1);
+                                                continue;
+                                        }
+                                        if (i - start > 1 && keys[start] != 0)
+                                                addGroup(slot + start, i - start, true);
+                                        start = i;
+                                }
+                        }
+                        else
+                        {
+                                // A stack in place: sort each run of interchangeable columns
+                                int c = slot * 3;
+                                while (c < slot * 3 + 3)
+                                {
+                                        int end = c;
+                                        while (end < slot * 3 + 2 && (freeColumns & (1 << end)) != 0)
+                                                end++;
+                                        if (end > c)
+                                                arrangeRun(grid, base, c, end - c + 1);
+                                        c = end + 1;
+                                }
+                        }
+                        slot = last + 1;
+                }
+
+                int next = beam.next[n];
+                for (int c = 0; c < 9; c++)
+                {
+                        int value = grid[base + columns[c]];
+                        if (value != 0)
+                        {
+                                if (labels[value] == 0)
+                                        labels[value] = next++;
+                                value = labels[value];
+                        }
+                        row[c] = value;
+                }
+        }
+
+        /*
+         * This function returns a key that orders stacks by their smallest reading of the given row:
+         * its three values sorted, with blanks as 0 and new digits as NEW.
+         */
+        private int stackKey(int [] grid, int base, int stack)
+        {
+                int a = value(grid[base + stack * 3]);
+                int b = value(grid[base + stack * 3 + 1]);
+                int c = value(grid[base + stack * 3 + 2]);
+                int low = Math.min(a, Math.min(b, c));
+                int high = Math.max(a, Math.max(b, c));
+                return (low * 11 + (a + b + c - low - high)) * 11 + high;
+        }
+
+        private int value(int digit)
+        {
+                return digit == 0 ? 0 : labels[digit] != 0 ? labels[digit] : NEW;
+        }
+
+        /*
+         * This function sorts the interchangeable columns from start to start + length - 1 into
+         * blanks, labelled digits by label, then new digits. The blanks stay interchangeable and
+         * the new digits form a group whose orders tie.
+         */
+        private void arrangeRun(int [] grid, int base, int start, int length)
+        {
+                for (int i = 0; i < length; i++)
+                {
+                        int column = columns[start + i];
+                        int key = value(grid[base + column]);
+                        int j = i;
+                        while (j > 0 && value(grid[base + run[j - 1]]) > key)
+                        {
+                                run[j] = run[j - 1];
+                                j--;
+                        }
+                        run[j] = column;
+                }
+
+                int news = 0;
+                for (int i = 0; i < length; i++)
+                {
+                        columns[start + i] = run[i];
+                        int key = value(grid[base + run[i]]);
+                        if (key == 0 && i > 0)
+                                columnFree |= 1 << (start + i - 1); // follows another blank
+                        if (key == NEW)
+                                news++;
+                }
+                if (news > 1)
+                        addGroup(start + length - news, news, false);
+        }
+
+        private void addGroup(int start, int length, boolean ofStacks)
+        {
+                groupStart[groups] = start;
+                groupLength[groups] = length;
+                groupOfStacks[groups] = ofStacks;
+                groups++;
+        }
+
+        /*
+         * This function compares row with bestRow, returning a negative, zero or positive number as
+         * it is smaller, equal or larger. A smaller row is copied into bestRow.
+         */
+        private int compare()
+        {
+                for (int c = 0; c < 9; c++)
+                {
+                        if (row[c] > bestRow[c])
+                                return 1;
+                        if (row[c] < bestRow[c])
+                        {
+                                System.arraycopy(row, c, bestRow, c, 9 - c);
+                                return -1;
+                        }
+                }
+                return 0;
+        }
+
+        /*
+         * This function adds to nextBeam every arrangement the tied groups allow, trying each order
+         * of group g from its element k on; the tied orders read the same but label digits differently.
+         */
+        private void branch(int n, int position, int source, int g, int k)
+        {
+                if (g == groups)
+                {
+                        extend(n, position, source);
+                        return;
+                }
+                if (k >= groupLength[g] - 1)
+                {
+                        branch(n, position, source, g + 1, 0);
+                        return;
+                }
+                for (int i = k; i < groupLength[g]; i++)
+                {
+                        swap(g, k, i);
+                        branch(n, position, source, g, k + 1);
+                        swap(g, k, i);
+                }
+        }
+
+        private void swap(int g, int a, int b)
+        {
+                if (a == b)
+                        return;
+                if (groupOfStacks[g])
+                {
+                        for (int c = 0; c < 3; c++)
+                        {
+                                int x = (groupStart[g] + a) * 3 + c, y = (groupStart[g] + b) * 3 + c;
+                                int temp = columns[x];
+                                columns[x] = columns[y];
+                                columns[y] = temp;
+                        }
+                }
+                else
+                {
+                        int x = groupStart[g] + a, y = groupStart[g] + b;
+                        int temp = columns[x];
+                        columns[x] = columns[y];
+                        columns[y] = temp;
+                }
+        }
+
+        /*
+         * This function copies arrangement n into nextBeam with the source row added at position,
+         * in the column order now in columns.
+         */
+        private void extend(int n, int position, int source)
+        {
+                int m = nextBeam.add();
+                int t = beam.transposed[n];
+                nextBeam.transposed[m] = t;
+                System.arraycopy(beam.rows, n * 9, nextBeam.rows, m * 9, position);
+                nextBeam.rows[m * 9 + position] = source;
+                System.arraycopy(columns, 0, nextBeam.columns, m * 9, 9);
+                nextBeam.columnFree[m] = columnFree;
+                nextBeam.stackFree[m] = stackFree;
+
+                int [] grid = grids[t];
+                int [] newLabels = nextBeam.labels;
+                System.arraycopy(beam.labels, n * 10, newLabels, m * 10, 10);
+                int next = beam.next[n];
+                for (int c = 0; c < 9; c++)
+                {
+                        int value = grid[source * 9 + columns[c]];
+                        if (value != 0 && newLabels[m * 10 + value] == 0)
+                                newLabels[m * 10 + value] = next++;
+                }
+                nextBeam.next[m] = next;
+        }
+
+        /*
+         * This object holds a set of arrangements in parallel arrays that grow as needed and are
+         * reused from one puzzle to the next. For each arrangement: whether the grid is transposed,
+         * the source rows chosen so far, the column order, which columns and stacks are still
+         * interchangeable, the labels given to digits so far and the next unused label.
+         */
+        private static class Beam
+        {
+                int size = 0;
+                int [] transposed = new int[64];
+                int [] rows = new int[64 * 9];
+                int [] columns = new int[64 * 9];
+                int [] columnFree = new int[64];
+                int [] stackFree = new int[64];
+                int [] labels = new int[64 * 10];
+                int [] next = new int[64];
+
+                /*
+                 * This function makes room for one more arrangement and returns its index.
+                 */
+                int add()
+                {
+                        if (size == next.length)
+                        {
+                                int capacity = size * 2;
+                                transposed = Arrays.copyOf(transposed, capacity);
+                                rows = Arrays.copyOf(rows, capacity * 9);
+                                columns = Arrays.copyOf(columns, capacity * 9);
+                                columnFree = Arrays.copyOf(columnFree, capacity);
+                                stackFree = Arrays.copyOf(stackFree, capacity);
+                                labels = Arrays.copyOf(labels, capacity * 10);
+                                next = Arrays.copyOf(next, capacity);
+                        }
+                        return size++;
+                }
+        }
+}
@@ -0,0 +1,170 @@
+/*
+ * This object generates complete, valid 9x9 sudoku grids at random. It runs the exact-cover search
+ * over an empty grid: every cell, and every digit in every row, column and zone, must be covered
+ * exactly once. Like DLX it branches on a shortest column, here the empty cell with the fewest
+ * candidates, but it tries that cell's digits in a random order. The digits each house holds are
+ * kept as 9-bit masks, so no matrix is built and a grid takes a few microseconds. (Branching on
+ * the digit columns too would backtrack less but costs far more to scan than it saves.)
+ *
+ * A generator owns its random source and scratch space, so it must not be shared between
+ * threads. forThread() hands each thread its own, split from one root generator, which lets
+ * many threads generate grids at once without locking.
+ *
+ * The following public functions are available:
+ *              GridGenerator(SplitMix64 random)
+ *              static GridGenerator forThread()
+ *              void generate(int [] nums)
+ * The following functions are private:
+ *              boolean fill(int depth)
+ *              void place(int cell, int digit)
+ *              void clear(int cell, int digit)
+ */
+package com.sudokuRandom;
+
+public class GridGenerator
+{
+        // Member Variables
+        private static final int ALL = 0x1FF; // Digits 1-9 as bits 0-8
+        private static final int [] ROW = new int[81];
+        private static final int [] COL = new int[81];
+        private static final int [] ZONE = new int[81];
+
+        private static final SplitMix64 ROOT = new SplitMix64(System.nanoTime() ^ 0x5DEECE66DL);
+        private static final ThreadLocal<GridGenerator> GENERATORS = new ThreadLocal<GridGenerator>()
+        {
+                @Override
+                protected GridGenerator initialValue()
+                {
+                        synchronized (ROOT)
+                        {
+                                return new GridGenerator(ROOT.split());
+                        }
+                }
+        };
+
+        static
+        {
+                for (int i = 0; i < 81; i++)
+                {
+                        ROW[i] = i / 9;
+                        COL[i] = i % 9;
+                        ZONE[i] = (ROW[i] / 3) * 3 + COL[i] / 3;
+                }
+        }
+
+        private final SplitMix64 random;
+        private int [] grid = new int[81]; // The grid being filled, 0 for empty
+        private int [] houses = new int[27]; // The digits each row, column and zone holds, as masks
+        private int [][] choices = new int[81][9]; // The digits tried at each depth, in the order they are tried
+
+        // Member Functions.
+        /*
+         * This constructor makes a generator that draws its randomness from random alone, so a
+         * generator given a SplitMix64 with a fixed seed always produces the same grids.
+         */
+        public GridGenerator(SplitMix64 random)
+        {
+                this.random = random;
+        }
+
+        /*
+         * This function returns the calling thread's generator, creating it on first use.
+         */
+        public static GridGenerator forThread()
+        {
+                return GENERATORS.get();
+        }
+
+        /*
+         * This function fills an 81 member array with a new random grid.
+         */
+        public void generate(int [] nums)
+        {
+                for (int i = 0; i < 81; i++)
+                        grid[i] = 0;
+                for (int i = 0; i < 27; i++)
+                        houses[i] = 0;
+
+                fill(0); // An empty grid always has a completion, so this always succeeds
+                System.arraycopy(grid, 0, nums, 0, 81);
+        }
+
+        /*
+         * This function fills the rest of the grid, depth cells having been filled already.
+         * Returns false, leaving the grid as it found it, if no completion exists.
+         */
+        private boolean fill(int depth)
+        {
+                if (depth == 81)
+                        return true;
+
+                // Find the most constrained cell; one with no candidates means this branch is dead.
+                // Seeded boards rely on this exact rule, early stop included (see SEED_VERSION in Board)
+                int bestCell = -1, bestCellCount = 10;
+                for (int i = 0; i < 81; i++)
+                {
+                        if (grid[i] != 0)
+                                continue;
+                        int count = Integer.bitCount(ALL & ~(houses[ROW[i]] | houses[9 + COL[i]] | houses[18 + ZONE[i]]));
+                        if (count < bestCellCount)
+                        {
+                                bestCell = i;
+                                bestCellCount = count;
+                                if (count <= 1)
+                                        break;
+                        }
+                }
+                if (bestCellCount == 0)
+                        return false;
+
+                // List the digits bestCell can take
+                int [] options = choices[depth];
+                int count = 0;
+                int candidates = ALL & ~(houses[ROW[bestCell]] | houses[9 + COL[bestCell]] | houses[18 + ZONE[bestCell]]);
+                while (candidates != 0)
+                {
+                        int bit = candidates & -candidates;
+                        candidates ^= bit;
+                        options[count++] = Integer.numberOfTrailingZeros(bit) + 1;
+                }
+
+                // Try them in random order, drawing each from those not yet tried
+                for (int i = 0; i < count; i++)
+                {
+                        int pick = i + random.nextInt(count - i);
+                        int digit = options[pick];
+                        options[pick] = options[i];
+                        options[i] = digit;
+
+                        place(bestCell, digit);
+                        if (fill(depth + 1))
+                                return true;
+                        clear(bestCell, digit);
+                }
+                return false;
+        }
+
+        /*
+         * This function puts digit in cell and marks it held by the cell's houses.
+         */
+        private void place(int cell, int digit)
+        {
+                int bit = 1 << (digit - 1);
+                grid[cell] = digit;
+                houses[ROW[cell]] |= bit;
+                houses[9 + COL[cell]] |= bit;
+                houses[18 + ZONE[cell]] |= bit;
+        }
+
+        /*
+         * This function undoes place.
+         */
+        private void clear(int cell, int digit)
+        {
+                int bit = ~(1 << (digit - 1));
+                grid[cell] = 0;
+                houses[ROW[cell]] &= bit;
+                houses[9 + COL[cell]] &= bit;
+                houses[18 + ZONE[cell]] &= bit;
+        }
+}
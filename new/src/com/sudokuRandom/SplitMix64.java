@@ -0,0 +1,104 @@
+/*
+ * This object is a small, fast, splittable pseudo-random number generator (SplitMix64, the
+ * algorithm behind java.util.SplittableRandom, which older Android releases do not have).
+ * Each generator adds its gamma to a 64-bit counter and scrambles the result, so a number costs
+ * a handful of multiplies and no locking. split() hands out a new generator whose stream is
+ * independent of its parent's, which lets each thread own a generator without sharing state.
+ * The same seed always gives the same numbers, on every platform. Seeded boards (see Board) are
+ * built from these numbers, so nextLong, nextInt and split must never change what they return.
+ * A generator must not be used by two threads at once.
+ *
+ * The following public functions are available:
+ *              SplitMix64(long seed)
+ *              static SplitMix64 unseeded()
+ *              long nextLong()
+ *              int nextInt(int bound)
+ *              SplitMix64 split()
+ */
+package com.sudokuRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SplitMix64
+{
+        // Member Variables
+        private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L; // The odd number closest to 2^64 / phi
+        private static final AtomicLong SEEDER = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+        private long seed; // The counter, advanced by gamma for every number
+        private final long gamma; // Always odd, so the counter visits every 64-bit value
+
+        // Member Functions.
+        /*
+         * This constructor starts a generator whose numbers are fixed by seed.
+         */
+        public SplitMix64(long seed)
+        {
+                this(seed, GOLDEN_GAMMA);
+        }
+
+        private SplitMix64(long seed, long gamma)
+        {
+                this.seed = seed;
+                this.gamma = gamma;
+        }
+
+        /*
+         * This function returns a generator seeded differently from every other one it returns, for
+         * when the numbers need not be reproducible. It is safe to call from any thread.
+         */
+        public static SplitMix64 unseeded()
+        {
+                long seed = SEEDER.getAndAdd(2 * GOLDEN_GAMMA);
+                return new SplitMix64(mix64(seed), mixGamma(seed + GOLDEN_GAMMA));
+        }
+
+        /*
+         * This function returns the next 64 pseudo-random bits.
+         */
+        public long nextLong()
+        {
+                return mix64(seed += gamma);
+        }
+
+        /*
+         * This function returns a pseudo-random number from 0 to bound - 1; bound must be positive.
+         * The top 32 bits are scaled rather than taken modulo bound, which is faster and, for
+         * the small bounds a sudoku needs, biased by less than one part in ten million.
+         */
+        public int nextInt(int bound)
+        {
+                return (int) (((nextLong() >>> 32) * bound) >>> 32);
+        }
+
+        /*
+         * This function returns a new generator, seeded and given a gamma from this one's stream.
+         * Its numbers are statistically independent of this generator's from then on.
+         */
+        public SplitMix64 split()
+        {
+                return new SplitMix64(nextLong(), mixGamma(seed += gamma));
+        }
+
+        /*
+         * This function is the SplitMix64 finaliser (Stafford's variant 13 of the MurmurHash3 mixer).
+         */
+        private static long mix64(long z)
+        {
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                return z ^ (z >>> 31);
+        }
+
+        /*
+         * This function turns a counter value into a gamma: odd, and with enough bit transitions
+         * that the counter does not advance in a visibly regular pattern.
+         */
+        private static long mixGamma(long z)
+        {
+                z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+                z = ((z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L) | 1L;
+                if (Long.bitCount(z ^ (z >>> 1)) < 24)
+                        z ^= 0xAAAAAAAAAAAAAAAAL;
+                return z;
+        }
+}
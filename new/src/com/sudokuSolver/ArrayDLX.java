@@ -0,0 +1,317 @@
+package com.sudokuSolver;
+
+// ArrayDLX is DLX running over a DLXArrayMatrix.  The search is the same
+// depth-first brute-force search; only the links are array slots instead
+// of object references, so Cover/Uncover stay within a few contiguous arrays.
+//
+// Unlike DLX, ArrayDLX hands the matrix back exactly as it found it: a
+// solve covers the given rows, searches, and Restore then uncovers every
+// column in reverse order.  A matrix holding every possible row can thus be
+// built once and reused for any number of puzzles without allocating.
+//
+// The search is iterative rather than recursive.  The solution array doubles
+// as the search stack: each entry above the given rows is the row chosen at
+// that depth, and the column it was chosen for is simply that row's column.
+// Nothing else lives on the Java stack, so a search can stop after any
+// number of nodes (Resume returns PAUSED) and carry on later exactly where
+// it left off, and deep searches on large grids cannot overflow the stack.
+public class ArrayDLX {
+    public static final int FOUND = 0;     // an exact cover is in place
+    public static final int EXHAUSTED = 1; // the search tree is used up
+    public static final int PAUSED = 2;    // the node allowance ran out
+
+    private int _count = 0; // exact covers found by the current search
+    private boolean _descend = true; // whether the next step visits a new node
+    private int _limit = 1; // report FOUND once this many exact covers are found
+    private int _givenCount = 0;
+    private SearchListener _listener = SearchListener.NONE;
+    private final DLXArrayMatrix _matrix;
+    private long _nodes = 0;
+    private final int[] _solution; // one node from each row in the solution
+    private int _solutionSize = 0;
+
+    public ArrayDLX(DLXArrayMatrix matrix) {
+        _matrix = matrix;
+        _solution = new int[matrix.Columns()];
+    }
+
+    // used to mark matrix rows as given before solving begins; returns false,
+    // covering nothing, if the row clashes with a row already in the solution
+    public boolean AddRowToSolution(int rowIndex) {
+        int[] left = _matrix.left, right = _matrix.right;
+        int[] column = _matrix.column;
+        int header = _matrix.RowHeader(rowIndex);
+        int node = header;
+        do
+        {
+            int col = column[node];
+            if (right[left[col]] != col)
+                return false; // column is already covered
+            node = right[node];
+        } while (node != header);
+
+        CoverRow(header);
+        _solution[_solutionSize++] = header;
+        _givenCount = _solutionSize;
+        return true;
+    }
+
+    // takes a given row back out of the solution, uncovering its columns;
+    // returns false if the row is not a given.  Only the given rows added
+    // after it have to be uncovered and covered again, so removing the most
+    // recent given is cheapest.  Call Unwind first if a search left rows
+    // of its own in place.
+    public boolean RemoveRowFromSolution(int rowIndex) {
+        int header = _matrix.RowHeader(rowIndex);
+        int index = _givenCount - 1;
+        while (index >= 0 && _solution[index] != header)
+            --index;
+        if (index < 0)
+            return false;
+
+        for (int i = _givenCount - 1; i >= index; --i)
+            UncoverRow(_solution[i]);
+        for (int i = index + 1; i < _givenCount; ++i) {
+            CoverRow(_solution[i]);
+            _solution[i - 1] = _solution[i];
+        }
+        _solutionSize = --_givenCount;
+        return true;
+    }
+
+    // the listener told about every node, branch, backtrack and Cover/Uncover
+    // from now on; SearchListener.NONE, the default, turns reporting off
+    public void Listen(SearchListener listener) {
+        _listener = listener;
+    }
+
+    public DLXArrayMatrix Matrix() {
+        return _matrix;
+    }
+
+    // the number of search nodes the current or last search has visited
+    public long Nodes() {
+        return _nodes;
+    }
+
+    // the index of the matrix row holding the i-th solution node
+    public int SolutionRow(int i) {
+        return _matrix.row[_solution[i]];
+    }
+
+    public int SolutionSize() {
+        return _solutionSize;
+    }
+
+    // searches for an exact cover of the columns the given rows left
+    // uncovered; on success the solution stays in place until Restore
+    public boolean Search() {
+        return Count(1) == 1;
+    }
+
+    // counts exact covers, stopping as soon as limit of them are found.
+    // Counting needs no copies: every cover but the last is backtracked
+    // out of like any failed branch.  If the limit is reached, the last
+    // cover found stays in place until Restore.  A limit of 0 or less
+    // counts nothing and returns 0 without searching.
+    public int Count(int limit) {
+        Begin(limit);
+        if (limit > 0)
+            Resume(Long.MAX_VALUE);
+        return _count;
+    }
+
+    // the number of exact covers the current or last search has found
+    public int Found() {
+        return _count;
+    }
+
+    // prepares a search of the columns the given rows left uncovered;
+    // nothing is searched until Resume is called
+    public void Begin(int limit) {
+        _count = 0;
+        _descend = true;
+        _limit = limit;
+        _nodes = 0;
+    }
+
+    /**
+     * Runs the search begun by Begin for at most maxNodes more nodes.
+     *
+     * @return FOUND once limit exact covers have been found, with the last of
+     *         them in place; calling Resume again backtracks out of it and
+     *         looks for the next one.  EXHAUSTED if the search tree is used up,
+     *         leaving only the given rows covered.  PAUSED if the nodes ran out
+     *         first; call Resume again to pick up where the search stopped.
+     */
+    public int Resume(long maxNodes) {
+        int[] left = _matrix.left, right = _matrix.right;
+        int[] down = _matrix.down, column = _matrix.column;
+        long stop = maxNodes == Long.MAX_VALUE ? Long.MAX_VALUE : _nodes + maxNodes;
+
+        while (true) {
+            if (_descend) { // visit a new node at the top of the stack
+                if (_nodes >= stop)
+                    return PAUSED;
+                ++_nodes;
+                _listener.Node(_solutionSize - _givenCount);
+
+                if (right[DLXArrayMatrix.ROOT] == DLXArrayMatrix.ROOT) {
+                    _descend = false; // all columns covered; backtrack out
+                    if (++_count >= _limit) // of it on the next call unless
+                        return FOUND;       // we still need more
+                    continue;
+                }
+
+                int col = ShortestColumn();
+                _listener.Branch(_solutionSize - _givenCount, _matrix.size[col]);
+                Cover(col);
+                int row = down[col];
+                if (row == col) { // no row satisfies this constraint
+                    Uncover(col);
+                    _descend = false;
+                    continue;
+                }
+                Push(row);
+            }
+            else { // backtrack: try the next row at the top of the stack
+                if (_solutionSize == _givenCount)
+                    return EXHAUSTED;
+
+                int row = _solution[--_solutionSize];
+                _listener.Backtrack(_solutionSize - _givenCount);
+                for (int l = left[row]; l != row; l = left[l])
+                    Uncover(column[l]);
+
+                int col = column[row];
+                row = down[row];
+                if (row != col) {
+                    Push(row);
+                    _descend = true;
+                }
+                else
+                    Uncover(col); // every row failed; keep backtracking
+            }
+        }
+    }
+
+    // uncovers everything the search and the given rows covered, leaving
+    // the matrix ready for the next solve
+    public void Restore() {
+        Unwind();
+        while (_solutionSize > 0) // given rows, last covered first
+            UncoverRow(_solution[--_solutionSize]);
+        _givenCount = 0;
+    }
+
+    // uncovers the rows the search chose, leaving the given rows covered so
+    // more givens can be added or removed and the search run again
+    public void Unwind() {
+        int[] left = _matrix.left, column = _matrix.column;
+
+        while (_solutionSize > _givenCount) {
+            int row = _solution[--_solutionSize];
+            for (int l = left[row]; l != row; l = left[l])
+                UncoverColumn(column[l]);
+            UncoverColumn(column[row]);
+        }
+    }
+
+    // see DLX.Cover: only the search's own covers and uncovers are
+    // reported, not those of the given rows, Unwind or Restore
+    private void Cover(int columnHead) {
+        _listener.Cover();
+        CoverColumn(columnHead);
+    }
+
+    private void Uncover(int columnHead) {
+        _listener.Uncover();
+        UncoverColumn(columnHead);
+    }
+
+    // see DLX.CoverColumn
+    private void CoverColumn(int columnHead) {
+        int[] left = _matrix.left, right = _matrix.right;
+        int[] up = _matrix.up, down = _matrix.down;
+        int[] column = _matrix.column, size = _matrix.size;
+
+        right[left[columnHead]] = right[columnHead]; // unlink the
+        left[right[columnHead]] = left[columnHead];  // column header
+
+        for (int row = down[columnHead]; row != columnHead; row = down[row])
+            for (int col = right[row]; col != row; col = right[col]) {
+                down[up[col]] = down[col]; // for each row in the column
+                up[down[col]] = up[col];   // unlink every node and
+                size[column[col]]--;       // decrement the column length
+            }
+    }
+
+    // covers every column of the row starting at header
+    private void CoverRow(int header) {
+        int[] right = _matrix.right, column = _matrix.column;
+        int node = header;
+        do
+        {
+            CoverColumn(column[node]);
+            node = right[node];
+        } while (node != header);
+    }
+
+    // the inverse of CoverRow: uncovers the row's columns in reverse order
+    private void UncoverRow(int header) {
+        int[] left = _matrix.left, column = _matrix.column;
+        int node = left[header];
+        do
+        {
+            UncoverColumn(column[node]);
+            node = left[node];
+        } while (node != left[header]);
+    }
+
+    // adds row to the solution and covers the rest of its columns; the
+    // caller has already covered the column row was chosen for
+    private void Push(int row) {
+        int[] right = _matrix.right, column = _matrix.column;
+
+        _solution[_solutionSize++] = row;
+        for (int r = right[row]; r != row; r = right[r])
+            Cover(column[r]);
+    }
+
+    // covering the shortest column is a fail-early strategy that
+    // significantly speeds up the search
+    private int ShortestColumn() {
+        int[] right = _matrix.right, size = _matrix.size;
+        int cursor = right[DLXArrayMatrix.ROOT];
+        int shortestColumn = cursor;
+        int minLength = size[cursor];
+
+        while (cursor != DLXArrayMatrix.ROOT) {
+            if (size[cursor] < minLength) {
+                shortestColumn = cursor;
+                minLength = size[cursor];
+            }
+            cursor = right[cursor];
+        }
+
+        return shortestColumn;
+    }
+
+    // see DLX.UncoverColumn
+    private void UncoverColumn(int columnHead) {
+        int[] left = _matrix.left, right = _matrix.right;
+        int[] up = _matrix.up, down = _matrix.down;
+        int[] column = _matrix.column, size = _matrix.size;
+
+        for (int row = up[columnHead]; row != columnHead; row = up[row])
+            for (int col = left[row]; col != row; col = left[col])
+            {
+                down[up[col]] = col;
+                up[down[col]] = col;
+                size[column[col]]++;
+            }
+
+        left[right[columnHead]] = columnHead; // relink the
+        right[left[columnHead]] = columnHead; // header
+    }
+}
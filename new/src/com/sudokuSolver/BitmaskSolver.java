@@ -0,0 +1,199 @@
+package com.sudokuSolver;
+
+// Solves standard 9x9 sudoku by constraint propagation.  Each row, column
+// and box keeps the digits it already holds as a 9-bit mask, so a cell's
+// candidates are just the bits none of its three houses hold.  Before each
+// guess the solver fills in every naked single (a cell with one candidate)
+// and hidden single (a digit with one possible cell in a house), then
+// branches on the cell with the fewest candidates.  For typical puzzles the
+// singles do nearly all the work and no matrix has to be built at all.
+public class BitmaskSolver implements SudokuEngine {
+    // the tables are shared with DifficultyGrader
+    static final int ALL = 0x1FF; // digits 1-9 as bits 0-8
+    static final int[] ROW = new int[81];
+    static final int[] COLUMN = new int[81];
+    static final int[] BOX = new int[81];
+    static final int[][] HOUSES = new int[27][9]; // rows, columns then boxes
+
+    static {
+        for (int i = 0; i < 81; ++i) {
+            ROW[i] = i / 9;
+            COLUMN[i] = i % 9;
+            BOX[i] = (ROW[i] / 3) * 3 + COLUMN[i] / 3;
+            HOUSES[ROW[i]][COLUMN[i]] = i;
+            HOUSES[9 + COLUMN[i]][ROW[i]] = i;
+            HOUSES[18 + BOX[i]][(ROW[i] % 3) * 3 + COLUMN[i] % 3] = i;
+        }
+    }
+
+    private int _count;
+    private int _limit;
+    private long _nodes;
+    private int[] _solution; // where the first solution found is copied, if anywhere
+
+    // the search state: digits placed so far and the digits each house holds
+    private final int[] _grid = new int[81];
+    private final int[] _rows = new int[9];
+    private final int[] _columns = new int[9];
+    private final int[] _boxes = new int[9];
+
+    // the state saved before each guess, one slot per search depth
+    private final int[][] _savedGrids = new int[82][81];
+    private final int[][] _savedHouses = new int[82][27];
+
+    public BitmaskSolver() { }
+
+    // the number of search nodes (guesses plus the root) the last call visited
+    public long Nodes() {
+        return _nodes;
+    }
+
+    public boolean Solve(int[] sudoku) {
+        return Run(sudoku, 1, sudoku) == 1;
+    }
+
+    public int CountSolutions(int[] sudoku, int limit) {
+        return Run(sudoku, limit, null);
+    }
+
+    // solves sudoku in place, as Solve does, and counts its solutions up to
+    // limit in the same search; with a limit of 2 this both solves a puzzle
+    // and tells whether its solution is unique
+    public int SolveAndCount(int[] sudoku, int limit) {
+        return Run(sudoku, limit, sudoku);
+    }
+
+    private int Run(int[] sudoku, int limit, int[] solution) {
+        _count = 0;
+        _limit = limit;
+        _nodes = 0;
+        _solution = solution;
+        if (limit <= 0)
+            return 0; // no solution is worth counting
+
+        for (int i = 0; i < 9; ++i)
+            _rows[i] = _columns[i] = _boxes[i] = 0;
+        for (int i = 0; i < 81; ++i) {
+            _grid[i] = 0;
+            int value = sudoku[i];
+            if (value > 0 && value <= 9) {
+                if ((Candidates(i) & (1 << (value - 1))) == 0)
+                    return 0; // givens clash
+                Place(i, value);
+            }
+        }
+
+        Search(0);
+        return _count;
+    }
+
+    // the digits cell may still take
+    private int Candidates(int cell) {
+        return ALL & ~(_rows[ROW[cell]] | _columns[COLUMN[cell]] | _boxes[BOX[cell]]);
+    }
+
+    private void Place(int cell, int value) {
+        int bit = 1 << (value - 1);
+        _grid[cell] = value;
+        _rows[ROW[cell]] |= bit;
+        _columns[COLUMN[cell]] |= bit;
+        _boxes[BOX[cell]] |= bit;
+    }
+
+    // propagates singles, then guesses at the most constrained cell;
+    // returns true once enough solutions have been found
+    private boolean Search(int depth) {
+        ++_nodes;
+        if (!Propagate())
+            return false;
+
+        // find the empty cell with the fewest candidates
+        int best = -1, bestCount = 10;
+        for (int i = 0; i < 81 && bestCount > 2; ++i)
+            if (_grid[i] == 0) {
+                int count = Integer.bitCount(Candidates(i));
+                if (count < bestCount) {
+                    best = i;
+                    bestCount = count;
+                }
+            }
+
+        if (best < 0) { // every cell is filled
+            if (_count++ == 0 && _solution != null)
+                System.arraycopy(_grid, 0, _solution, 0, 81);
+            return _count >= _limit;
+        }
+
+        Save(depth);
+        for (int candidates = Candidates(best); candidates != 0; candidates &= candidates - 1) {
+            Place(best, Integer.numberOfTrailingZeros(candidates) + 1);
+            if (Search(depth + 1))
+                return true;
+            Load(depth);
+        }
+        return false;
+    }
+
+    // fills in naked and hidden singles until none are left; returns
+    // false if the position is contradictory
+    private boolean Propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int i = 0; i < 81; ++i)
+                if (_grid[i] == 0) {
+                    int candidates = Candidates(i);
+                    if (candidates == 0)
+                        return false;
+                    if ((candidates & (candidates - 1)) == 0) { // naked single
+                        Place(i, Integer.numberOfTrailingZeros(candidates) + 1);
+                        changed = true;
+                    }
+                }
+
+            for (int h = 0; h < 27; ++h) {
+                int[] house = HOUSES[h];
+                int once = 0, twice = 0, placed = 0;
+                for (int cell : house) {
+                    if (_grid[cell] != 0) {
+                        placed |= 1 << (_grid[cell] - 1);
+                        continue;
+                    }
+                    int candidates = Candidates(cell);
+                    twice |= once & candidates;
+                    once |= candidates;
+                }
+                if ((once | placed) != ALL)
+                    return false; // some digit has nowhere to go
+
+                for (int hidden = once & ~twice & ~placed; hidden != 0; hidden &= hidden - 1) {
+                    int bit = hidden & -hidden;
+                    for (int cell : house)
+                        if (_grid[cell] == 0 && (Candidates(cell) & bit) != 0) {
+                            Place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                            changed = true;
+                            break;
+                        }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void Save(int depth) {
+        System.arraycopy(_grid, 0, _savedGrids[depth], 0, 81);
+        int[] houses = _savedHouses[depth];
+        System.arraycopy(_rows, 0, houses, 0, 9);
+        System.arraycopy(_columns, 0, houses, 9, 9);
+        System.arraycopy(_boxes, 0, houses, 18, 9);
+    }
+
+    private void Load(int depth) {
+        System.arraycopy(_savedGrids[depth], 0, _grid, 0, 81);
+        int[] houses = _savedHouses[depth];
+        System.arraycopy(houses, 0, _rows, 0, 9);
+        System.arraycopy(houses, 9, _columns, 0, 9);
+        System.arraycopy(houses, 18, _boxes, 0, 9);
+    }
+}
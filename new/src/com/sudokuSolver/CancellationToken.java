@@ -0,0 +1,19 @@
+package com.sudokuSolver;
+
+// Lets one thread stop a solve running on another.  The engines poll the
+// token every DLX.CHECK_INTERVAL nodes, so a token costs the search next
+// to nothing until it is cancelled.  A cancelled token stays cancelled;
+// use a new one for the next solve.
+public class CancellationToken {
+    private volatile boolean _cancelled = false;
+
+    public CancellationToken() { }
+
+    public void Cancel() {
+        _cancelled = true;
+    }
+
+    public boolean Cancelled() {
+        return _cancelled;
+    }
+}
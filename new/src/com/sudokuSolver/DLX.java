@@ -1,15 +1,24 @@
 package com.sudokuSolver;
 
-import java.util.ArrayList;
-import java.util.Stack;
-
 // DLX solves an instance of EXACT COVER via a recursive, depth-first brute-force search.
 // This search is surprisingly fast (though still not polynomial) because of the unique
 // matrix structure it uses to encode the EXACT COVER matrix.
 public class DLX {
+    public static final int CHECK_INTERVAL = 1024; // nodes between budget checks; a power of 2
+
+    private boolean _cancelled = false; // the search stopped because _token was cancelled
     private boolean _done = false;
+    private boolean _expired = false; // the search stopped because its budget ran out
+    private int _givenCount = 0;
+    private SearchListener _listener = SearchListener.NONE;
     private DLXMatrix _matrix;
-    private Stack<DLXNode> _solution = new Stack<DLXNode>();
+    private long _maxNanos = Long.MAX_VALUE;
+    private long _maxNodes = Long.MAX_VALUE;
+    private long _nodes = 0;
+    private long _start;
+    private CancellationToken _token;
+    private DLXNode[] _solution = new DLXNode[0]; // a node of each row in the solution
+    private int _solutionSize = 0;
 
     public DLX() { }
 
@@ -18,33 +27,85 @@ public class DLX {
         DLXNode node = _matrix.RowHeader(rowIndex);
         do
         {
-            Cover(node.column);
+            CoverColumn(node.column);
             node = node.right;
         } while (node != _matrix.RowHeader(rowIndex));
 
-        _solution.push(node);
+        _solution[_solutionSize++] = node;
+        _givenCount = _solutionSize;
+    }
+
+    // whether the last solve gave up because its token was cancelled
+    public boolean Cancelled() {
+        return _cancelled;
+    }
+
+    // whether the last solve gave up because it ran out of nodes or time
+    public boolean Expired() {
+        return _expired;
+    }
+
+    // limits the next solve to roughly maxNodes nodes and maxNanos of wall
+    // time, and has it give up if token (which may be null) is cancelled.
+    // The limits are checked every CHECK_INTERVAL nodes, so a solve may
+    // overrun them by that many nodes.
+    public void Limit(long maxNodes, long maxNanos, CancellationToken token) {
+        _maxNodes = maxNodes;
+        _maxNanos = maxNanos;
+        _token = token;
+    }
+
+    // see ArrayDLX.Listen
+    public void Listen(SearchListener listener) {
+        _listener = listener;
+    }
+
+    // the number of search nodes (calls to Recurse) the last solve visited
+    public long Nodes() {
+        return _nodes;
     }
 
-    public Stack<DLXNode> Solution() {
-        return _solution;
+    // a node of the i-th row in the solution
+    public DLXNode SolutionNode(int i) {
+        return _solution[i];
     }
 
-    // adds the given rows to the solution then begins the recursive search
-    public void Solve(DLXMatrix matrix, ArrayList<Integer> givenRows) {
+    public int SolutionSize() {
+        return _solutionSize;
+    }
+
+    // adds the first givenCount of givenRows to the solution then begins
+    // the recursive search
+    public void Solve(DLXMatrix matrix, int[] givenRows, int givenCount) {
         _matrix = matrix;
+        _start = System.nanoTime();
+        if (_solution.length < matrix.Columns()) // every row covers a column
+            _solution = new DLXNode[matrix.Columns()];
 
-        if (givenRows.size() > 0)
-            for (Integer row : givenRows)
-                AddRowToSolution(row);
+        for (int i = 0; i < givenCount; ++i)
+            AddRowToSolution(givenRows[i]);
 
         Recurse();
     }
 
-    // Cover marks a column (i.e. a constraint) satisfied by removing it
+    // the search's own Cover and Uncover, the ones the listener hears
+    // about; covering the given rows is setup, not search, and is not
+    // reported
+    private void Cover(DLXNode columnHead) {
+        _listener.Cover();
+        CoverColumn(columnHead);
+    }
+
+    private void Uncover(DLXNode columnHead) {
+        _listener.Uncover();
+        UncoverColumn(columnHead);
+    }
+
+    // CoverColumn marks a column (i.e. a constraint) satisfied by removing it
     // from the list of columns.  Its links, however, are preserved,
-    // making it easy (and fast) to unmark (Uncover) the column when a
+    // making it easy (and fast) to unmark (UncoverColumn) the column when a
     // search branch results in failure and backtracking is required.
-    private void Cover(DLXNode columnHead){
+    private void CoverColumn(DLXNode columnHead){
         columnHead.right.left = columnHead.left;  // unlink the
         columnHead.left.right = columnHead.right; // column header
 
@@ -69,17 +130,23 @@ public class DLX {
     // a consistent assignment of values to each of the puzzle's cells; if not, no such
     // assignment exists.
     private void Recurse() {
+        if ((++_nodes & (CHECK_INTERVAL - 1)) == 0 && OutOfBudget()) {
+            _done = true; // unwind the search
+            return;       // without a solution
+        }
+        _listener.Node(_solutionSize - _givenCount);
         if (_matrix.Root().right == _matrix.Root()) {
             _done = true; // all columns covered,
             return;      // nothing left to do
         }
 
         DLXNode column = ShortestColumn();
+        _listener.Branch(_solutionSize - _givenCount, column.data);
         Cover(column);
 
         DLXNode row = column.down;
         while (row != column) {
-            _solution.push(row);
+            _solution[_solutionSize++] = row;
             for (DLXNode right = row.right; right != row; right = right.right)
                 Cover(right.column);
 
@@ -89,7 +156,8 @@ public class DLX {
                 return;
 
             // if we're here, we need to backtrack
-            _solution.pop();
+            --_solutionSize;
+            _listener.Backtrack(_solutionSize - _givenCount);
             column = row.column;
             for (DLXNode left = row.left; left != row; left = left.left)
                 Uncover(left.column);
@@ -100,6 +168,16 @@ public class DLX {
         Uncover(column);
     }
 
+    // polled every CHECK_INTERVAL nodes; the token is checked first so a
+    // cancelled solve reports CANCELLED even if it was also out of time
+    private boolean OutOfBudget() {
+        if (_token != null && _token.Cancelled())
+            _cancelled = true;
+        else if (_nodes >= _maxNodes || System.nanoTime() - _start >= _maxNanos)
+            _expired = true;
+        return _cancelled || _expired;
+    }
+
     // covering the shortest column is a fail-early strategy that
     // significantly speeds up the search
     private DLXNode ShortestColumn() {
@@ -118,9 +196,9 @@ public class DLX {
         return shortestColumn;
     }
 
-    // the inverse operation of Cover, Uncover relinks an unlinked column header
-    private void Uncover(DLXNode columnHead) {
-        // this is the inverse operation of Cover
+    // the inverse operation of CoverColumn, UncoverColumn relinks an unlinked column header
+    private void UncoverColumn(DLXNode columnHead) {
+        // this is the inverse operation of CoverColumn
         // note it's possible because the pointers of
         // covered (i.e. unlinked) nodes weren't modified
         for (DLXNode row = columnHead.up; row != columnHead; row = row.up)
@@ -0,0 +1,121 @@
+package com.sudokuSolver;
+
+// Array-backed counterpart of DLXMatrix.  The quadruply-linked circular
+// lists live in parallel int arrays indexed by node number instead of in
+// thousands of DLXNode objects:
+//     node 0                     the root
+//     nodes 1 .. columns         the column headers (column c is node c + 1)
+//     nodes columns + 1 ..       the row nodes, appended row by row
+// Because rows are appended contiguously, the nodes of one row sit next to
+// each other in every array and Cover/Uncover walk memory instead of the heap.
+// As with DLXNode, the arrays are public: the search touches them millions
+// of times and accessor calls would only get in the way.
+public class DLXArrayMatrix {
+    public static final int ROOT = 0;
+
+    public final int[] left;
+    public final int[] right;
+    public final int[] up;
+    public final int[] down;
+    public final int[] column; // the header node of each node's column
+    public final int[] size;   // holds the length of a column for column headers
+    public final int[] row;    // the index of the row each node belongs to
+
+    private final int _columns;
+    private final int[] _rowHeaders;
+    private int _nodes;
+    private int _rows = 0;
+
+    /**
+     * @param columns number of constraint columns
+     * @param maxRows the most rows that will ever be added
+     * @param maxNodes the most row nodes (i.e. ones in the matrix) that will ever be added
+     */
+    public DLXArrayMatrix(int columns, int maxRows, int maxNodes) {
+        int capacity = columns + 1 + maxNodes;
+        left = new int[capacity];
+        right = new int[capacity];
+        up = new int[capacity];
+        down = new int[capacity];
+        column = new int[capacity];
+        size = new int[columns + 1];
+        row = new int[capacity];
+        _columns = columns;
+        _rowHeaders = new int[maxRows];
+
+        CreateColumns();
+    }
+
+    // a deep copy of other, in whatever state of covering it is
+    public DLXArrayMatrix(DLXArrayMatrix other) {
+        left = other.left.clone();
+        right = other.right.clone();
+        up = other.up.clone();
+        down = other.down.clone();
+        column = other.column.clone();
+        size = other.size.clone();
+        row = other.row.clone();
+        _columns = other._columns;
+        _rowHeaders = other._rowHeaders.clone();
+        _nodes = other._nodes;
+        _rows = other._rows;
+    }
+
+    public int Columns() {
+        return _columns;
+    }
+
+    public int Rows() {
+        return _rows;
+    }
+
+    // returns the header node of the column with the given index
+    public int ColumnHeader(int columnIndex) {
+        return columnIndex + 1;
+    }
+
+    public int RowHeader(int rowIndex) {
+        return _rowHeaders[rowIndex];
+    }
+
+    // appends a row with a one in each of the given columns and
+    // returns the row's index
+    public int AddRow(int[] columnIndices, int count) {
+        int rowIndex = _rows++;
+        int first = _nodes;
+        for (int i = 0; i < count; ++i) {
+            int node = _nodes++;
+            row[node] = rowIndex;
+            left[node] = (i == 0) ? first + count - 1 : node - 1;
+            right[node] = (i == count - 1) ? first : node + 1;
+            AppendToColumn(node, columnIndices[i] + 1);
+        }
+        _rowHeaders[rowIndex] = first;
+
+        return rowIndex;
+    }
+
+    // append node at the end of columnHeader's list
+    private void AppendToColumn(int node, int columnHeader) {
+        // note the column is circular: header->up points to
+        // the end of the list and end->down points to header
+        column[node] = columnHeader;
+        down[node] = columnHeader;
+        up[node] = up[columnHeader];
+        down[up[columnHeader]] = node;
+        up[columnHeader] = node;
+
+        size[columnHeader]++;
+    }
+
+    // links the root and the column headers into one circular list
+    private void CreateColumns() {
+        for (int node = 0; node <= _columns; ++node) {
+            left[node] = (node == 0) ? _columns : node - 1;
+            right[node] = (node == _columns) ? 0 : node + 1;
+            up[node] = down[node] = column[node] = node;
+            row[node] = -1;
+        }
+        _nodes = _columns + 1;
+    }
+}
@@ -34,6 +34,10 @@ public class DLXMatrix {
         return _rows.size() - 1;
     }
 
+    public int Columns() {
+        return _columns.size();
+    }
+
     public DLXNode Root() {
         return _root;
     }
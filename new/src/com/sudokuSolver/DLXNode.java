@@ -11,7 +11,7 @@ public class DLXNode {
     public DLXNode up = null;
     public DLXNode down = null;
     public int data = 0; // holds the length of a column for column headers
-    public int index = 0; // row and column headers hold their own indices
+    public int index = 0; // column headers hold their own indices, row nodes their row's (see SudokuSolver.CreateRow)
 
     public DLXNode(){ }
 
@@ -0,0 +1,521 @@
+package com.sudokuSolver;
+
+// Grades standard 9x9 sudoku by the techniques a person needs to solve
+// them, rather than by how many clues they have.  The grader keeps each
+// empty cell's candidates as a 9-bit mask and solves by logic alone,
+// trying the techniques below from the easiest up and starting again from
+// the easiest after every step:
+//     hidden and naked singles       place a digit
+//     locked candidates              pointing and claiming
+//     naked and hidden pairs/triples
+//     X-wing and swordfish           row- and column-based fish
+//     simple colouring               single-digit conjugate chains
+// Grade returns the hardest technique the solve needed, or GUESSING if the
+// techniques ran dry before the grid was full.  Score adds up the rating
+// of every step taken (the ratings are roughly Sudoku Explainer's, times
+// ten), so of two puzzles that need the same hardest technique the one
+// needing it, and everything else, more often scores higher.
+//
+// The grader assumes the puzzle has exactly one solution; check that first
+// with CountSolutions.  It allocates nothing per puzzle, and one instance
+// grades one puzzle at a time.
+public class DifficultyGrader {
+    public static final int HIDDEN_SINGLE = 0;
+    public static final int NAKED_SINGLE = 1;
+    public static final int LOCKED_CANDIDATES = 2;
+    public static final int NAKED_PAIR = 3;
+    public static final int X_WING = 4;
+    public static final int HIDDEN_PAIR = 5;
+    public static final int NAKED_TRIPLE = 6;
+    public static final int SWORDFISH = 7;
+    public static final int HIDDEN_TRIPLE = 8;
+    public static final int SIMPLE_COLOURING = 9;
+    public static final int GUESSING = 10; // logic alone got stuck
+    public static final int INVALID = 11;  // the givens contradict each other
+    public static final int TECHNIQUES = 11; // the techniques Uses counts, up to GUESSING
+
+    private static final int[] RATINGS = { 12, 23, 28, 30, 32, 34, 36, 38, 40, 45, 100 };
+    private static final String[] NAMES = {
+        "hidden single", "naked single", "locked candidates", "naked pair", "X-wing",
+        "hidden pair", "naked triple", "swordfish", "hidden triple", "simple colouring",
+        "guessing", "invalid"
+    };
+
+    private static final int ALL = BitmaskSolver.ALL;
+    private static final int[] ROW = BitmaskSolver.ROW;
+    private static final int[] COLUMN = BitmaskSolver.COLUMN;
+    private static final int[] BOX = BitmaskSolver.BOX;
+    private static final int[][] HOUSES = BitmaskSolver.HOUSES;
+    private static final int[][] PEERS = new int[81][20]; // the cells each cell sees
+
+    // each box meets 3 rows and 3 columns; for each of those 54 meetings,
+    // the 3 cells in common, the rest of the box and the rest of the line
+    private static final int[][] SEGMENTS = new int[54][3];
+    private static final int[][] BOX_RESTS = new int[54][6];
+    private static final int[][] LINE_RESTS = new int[54][6];
+
+    // what a subset found by Subset means; see Eliminate
+    private static final int NAKED = 0;
+    private static final int HIDDEN = 1;
+    private static final int FISH = 2;
+
+    static {
+        for (int i = 0; i < 81; ++i)
+            for (int j = 0, p = 0; j < 81; ++j)
+                if (i != j && Sees(i, j))
+                    PEERS[i][p++] = j;
+
+        for (int b = 0, m = 0; b < 9; ++b)
+            for (int line = 0; line < 18; ++line) {
+                int[] lineCells = HOUSES[line];
+                if (BOX[lineCells[0]] != b && BOX[lineCells[4]] != b && BOX[lineCells[8]] != b)
+                    continue; // this line misses the box
+                int s = 0, br = 0, lr = 0;
+                for (int cell : lineCells)
+                    if (BOX[cell] == b)
+                        SEGMENTS[m][s++] = cell;
+                    else
+                        LINE_RESTS[m][lr++] = cell;
+                for (int cell : HOUSES[18 + b])
+                    if ((line < 9 ? ROW[cell] : 9 + COLUMN[cell]) != line)
+                        BOX_RESTS[m][br++] = cell;
+                ++m;
+            }
+    }
+
+    private final int[] _candidates = new int[81]; // 0 for filled cells
+    private final int[] _grid = new int[81];
+    private int _hardest;
+    private boolean _invalid;
+    private int _remaining; // empty cells
+    private int _score;
+    private int _steps;
+    private final int[] _uses = new int[TECHNIQUES];
+
+    // scratch space for the subset, fish and colouring searches
+    private final int[] _colours = new int[81];
+    private final int[] _masks = new int[9];
+    private final int[] _queue = new int[81];
+    private int _base;   // the house offset Subset's items index (0 rows, 9 columns, 18 boxes)
+    private int _cover;  // for fish, the offset of the houses the subset covers
+    private int _digit;  // for fish, the digit's bit
+    private int _house;  // for naked and hidden subsets, the house searched
+    private int _mode;
+
+    public DifficultyGrader() { }
+
+    public static String Name(int technique) {
+        return NAMES[technique];
+    }
+
+    public static int Rating(int technique) {
+        return RATINGS[technique];
+    }
+
+    // the hardest technique the last puzzle graded needed
+    public int Hardest() {
+        return _hardest;
+    }
+
+    // the sum of the ratings of every step the last grade took
+    public int Score() {
+        return _score;
+    }
+
+    public int Steps() {
+        return _steps;
+    }
+
+    // how many steps of the last grade used technique
+    public int Uses(int technique) {
+        return _uses[technique];
+    }
+
+    /**
+     * Solves a 9x9 puzzle by logic alone to find how hard it is for a person.
+     *
+     * @param sudoku 81 integers using 0 to mark blank cells; left unchanged
+     * @return the hardest technique needed, GUESSING if the techniques could
+     *         not finish the grid, or INVALID if the givens contradict each
+     *         other
+     */
+    public int Grade(int[] sudoku) {
+        _hardest = HIDDEN_SINGLE;
+        _invalid = false;
+        _remaining = 81;
+        _score = _steps = 0;
+        for (int t = 0; t < TECHNIQUES; ++t)
+            _uses[t] = 0;
+        for (int i = 0; i < 81; ++i) {
+            _grid[i] = 0;
+            _candidates[i] = ALL;
+        }
+
+        for (int i = 0; i < 81; ++i) {
+            int value = sudoku[i];
+            if (value > 0 && value <= 9) {
+                if ((_candidates[i] & (1 << (value - 1))) == 0)
+                    return _hardest = INVALID;
+                Place(i, value);
+            }
+        }
+
+        int technique = HIDDEN_SINGLE;
+        while (_remaining > 0 && technique < GUESSING) {
+            if (Apply(technique))
+                technique = HIDDEN_SINGLE; // back to the easiest
+            else
+                ++technique;
+            if (_invalid)
+                return _hardest = INVALID;
+        }
+
+        if (_remaining > 0)
+            Use(GUESSING);
+        return _hardest;
+    }
+
+    // tries one technique; true if it placed or eliminated anything
+    private boolean Apply(int technique) {
+        switch (technique) {
+            case HIDDEN_SINGLE: return HiddenSingles();
+            case NAKED_SINGLE: return NakedSingles();
+            case LOCKED_CANDIDATES: return LockedCandidates();
+            case NAKED_PAIR: return NakedSubset(2);
+            case X_WING: return Fish(2);
+            case HIDDEN_PAIR: return HiddenSubset(2);
+            case NAKED_TRIPLE: return NakedSubset(3);
+            case SWORDFISH: return Fish(3);
+            case HIDDEN_TRIPLE: return HiddenSubset(3);
+            case SIMPLE_COLOURING: return Colouring();
+        }
+        return false;
+    }
+
+    private void Use(int technique) {
+        ++_uses[technique];
+        ++_steps;
+        _score += RATINGS[technique];
+        if (technique > _hardest)
+            _hardest = technique;
+    }
+
+    private void Place(int cell, int value) {
+        int bit = 1 << (value - 1);
+        _grid[cell] = value;
+        _candidates[cell] = 0;
+        --_remaining;
+        for (int peer : PEERS[cell])
+            _candidates[peer] &= ~bit;
+    }
+
+    // a digit with one possible cell in a house goes there; every house is
+    // scanned in one pass, and each placement counts as a step
+    private boolean HiddenSingles() {
+        boolean progress = false;
+        for (int h = 0; h < 27; ++h) {
+            int[] house = HOUSES[h];
+            int once = 0, twice = 0, placed = 0;
+            for (int cell : house) {
+                int candidates = _candidates[cell];
+                twice |= once & candidates;
+                once |= candidates;
+                if (_grid[cell] != 0)
+                    placed |= 1 << (_grid[cell] - 1);
+            }
+            if ((once | placed) != ALL) {
+                _invalid = true; // some digit has nowhere to go
+                return false;
+            }
+
+            for (int hidden = once & ~twice; hidden != 0; hidden &= hidden - 1) {
+                int bit = hidden & -hidden;
+                for (int cell : house)
+                    if ((_candidates[cell] & bit) != 0) {
+                        Place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                        Use(HIDDEN_SINGLE);
+                        progress = true;
+                        break;
+                    }
+            }
+        }
+        return progress;
+    }
+
+    // a cell with one candidate takes it
+    private boolean NakedSingles() {
+        boolean progress = false;
+        for (int i = 0; i < 81; ++i) {
+            if (_grid[i] != 0)
+                continue;
+            int candidates = _candidates[i];
+            if (candidates == 0) {
+                _invalid = true;
+                return false;
+            }
+            if ((candidates & (candidates - 1)) == 0) {
+                Place(i, Integer.numberOfTrailingZeros(candidates) + 1);
+                Use(NAKED_SINGLE);
+                progress = true;
+            }
+        }
+        return progress;
+    }
+
+    // if a digit's candidates in a box all lie on one line, no other cell
+    // of that line can take it (pointing), and if a digit's candidates on a
+    // line all lie in one box, no other cell of that box can (claiming)
+    private boolean LockedCandidates() {
+        for (int m = 0; m < 54; ++m) {
+            int segment = Union(SEGMENTS[m]);
+            int boxRest = Union(BOX_RESTS[m]);
+            int lineRest = Union(LINE_RESTS[m]);
+
+            int pointing = segment & ~boxRest & lineRest;
+            if (pointing != 0) {
+                Remove(LINE_RESTS[m], pointing);
+                Use(LOCKED_CANDIDATES);
+                return true;
+            }
+            int claiming = segment & ~lineRest & boxRest;
+            if (claiming != 0) {
+                Remove(BOX_RESTS[m], claiming);
+                Use(LOCKED_CANDIDATES);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // size cells of a house whose candidates together number size: those
+    // digits can go nowhere else in the house
+    private boolean NakedSubset(int size) {
+        _mode = NAKED;
+        for (int h = 0; h < 27; ++h) {
+            int[] house = HOUSES[h];
+            for (int i = 0; i < 9; ++i)
+                _masks[i] = _candidates[house[i]];
+            _house = h;
+            if (Subset(size, 0, 0, 0, 0)) {
+                Use(size == 2 ? NAKED_PAIR : NAKED_TRIPLE);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // size digits that together have only size places in a house: those
+    // cells can hold no other digit
+    private boolean HiddenSubset(int size) {
+        _mode = HIDDEN;
+        for (int h = 0; h < 27; ++h) {
+            Positions(h, _masks);
+            _house = h;
+            if (Subset(size, 0, 0, 0, 0)) {
+                Use(size == 2 ? HIDDEN_PAIR : HIDDEN_TRIPLE);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // size rows whose candidates for a digit all lie in the same size
+    // columns: no other cell in those columns can take the digit (and the
+    // same with rows and columns swapped)
+    private boolean Fish(int size) {
+        _mode = FISH;
+        for (int d = 0; d < 9; ++d) {
+            _digit = 1 << d;
+            for (_base = 0; _base <= 9; _base += 9) {
+                _cover = 9 - _base;
+                for (int line = 0; line < 9; ++line) {
+                    int[] cells = HOUSES[_base + line];
+                    int positions = 0;
+                    for (int i = 0; i < 9; ++i)
+                        if ((_candidates[cells[i]] & _digit) != 0)
+                            positions |= 1 << i;
+                    _masks[line] = positions;
+                }
+                if (Subset(size, 0, 0, 0, 0)) {
+                    Use(size == 2 ? X_WING : SWORDFISH);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // looks for size of the nine _masks which together hold exactly size
+    // bits, and stops at the first such subset Eliminate can use.  Masks
+    // with one bit are singles, which the easier techniques have already
+    // dealt with.
+    private boolean Subset(int size, int from, int count, int chosen, int union) {
+        if (count == size)
+            return Eliminate(chosen, union);
+
+        for (int i = from; i < 9; ++i) {
+            int mask = _masks[i];
+            int bits = Integer.bitCount(mask);
+            if (bits < 2 || bits > size)
+                continue;
+            int combined = union | mask;
+            if (Integer.bitCount(combined) > size)
+                continue;
+            if (Subset(size, i + 1, count + 1, chosen | 1 << i, combined))
+                return true;
+        }
+        return false;
+    }
+
+    // acts on a subset found by Subset; chosen holds the indices of its
+    // masks and union their bits.  Returns true if any candidate went.
+    private boolean Eliminate(int chosen, int union) {
+        boolean progress = false;
+        if (_mode == NAKED) { // chosen cells, union digits
+            int[] house = HOUSES[_house];
+            for (int i = 0; i < 9; ++i)
+                if ((chosen & 1 << i) == 0 && (_candidates[house[i]] & union) != 0) {
+                    _candidates[house[i]] &= ~union;
+                    progress = true;
+                }
+        }
+        else if (_mode == HIDDEN) { // chosen digits, union cells
+            int[] house = HOUSES[_house];
+            for (int i = 0; i < 9; ++i)
+                if ((union & 1 << i) != 0 && (_candidates[house[i]] & ~chosen) != 0) {
+                    _candidates[house[i]] &= chosen;
+                    progress = true;
+                }
+        }
+        else { // chosen base lines, union cover lines
+            for (int cover = 0; cover < 9; ++cover) {
+                if ((union & 1 << cover) == 0)
+                    continue;
+                int[] cells = HOUSES[_cover + cover];
+                for (int i = 0; i < 9; ++i)
+                    if ((chosen & 1 << i) == 0 && (_candidates[cells[i]] & _digit) != 0) {
+                        _candidates[cells[i]] &= ~_digit;
+                        progress = true;
+                    }
+            }
+        }
+        return progress;
+    }
+
+    // Simple colouring: where a digit has exactly two places in a house,
+    // one of them holds it.  Chains of such pairs colour their cells
+    // alternately, and exactly one colour holds the digit, so
+    //     two cells of one colour seeing each other make that colour false
+    //     a cell seeing both colours cannot hold the digit
+    private boolean Colouring() {
+        for (int d = 0; d < 9; ++d) {
+            int bit = 1 << d;
+            for (int i = 0; i < 81; ++i)
+                _colours[i] = 0;
+
+            int colour = 1;
+            for (int start = 0; start < 81; ++start) {
+                if ((_candidates[start] & bit) == 0 || _colours[start] != 0)
+                    continue;
+
+                // colour the chain through start, breadth first
+                int head = 0, tail = 0;
+                _colours[start] = colour;
+                _queue[tail++] = start;
+                while (head < tail) {
+                    int cell = _queue[head++];
+                    int opposite = _colours[cell] == colour ? colour + 1 : colour;
+                    for (int h = 0; h < 3; ++h) {
+                        int house = h == 0 ? ROW[cell] : h == 1 ? 9 + COLUMN[cell] : 18 + BOX[cell];
+                        int partner = ConjugatePartner(house, cell, bit);
+                        if (partner >= 0 && _colours[partner] == 0) {
+                            _colours[partner] = opposite;
+                            _queue[tail++] = partner;
+                        }
+                    }
+                }
+
+                if (tail > 1 && ColourEliminations(tail, bit, colour))
+                    return true;
+                colour += 2;
+            }
+        }
+        return false;
+    }
+
+    // the other cell of house holding bit, if bit has exactly two places there
+    private int ConjugatePartner(int house, int cell, int bit) {
+        int partner = -1, count = 0;
+        for (int other : HOUSES[house])
+            if ((_candidates[other] & bit) != 0) {
+                if (++count > 2)
+                    return -1;
+                if (other != cell)
+                    partner = other;
+            }
+        return count == 2 ? partner : -1;
+    }
+
+    // applies the colouring rules to the chain of length cells in _queue,
+    // coloured colour and colour + 1
+    private boolean ColourEliminations(int length, int bit, int colour) {
+        for (int i = 0; i < length; ++i)
+            for (int j = i + 1; j < length; ++j) {
+                int a = _queue[i], b = _queue[j];
+                if (_colours[a] == _colours[b] && Sees(a, b)) { // colour wrap
+                    for (int k = 0; k < length; ++k)
+                        if (_colours[_queue[k]] == _colours[a])
+                            _candidates[_queue[k]] &= ~bit;
+                    Use(SIMPLE_COLOURING);
+                    return true;
+                }
+            }
+
+        boolean progress = false;
+        for (int cell = 0; cell < 81; ++cell) { // colour trap
+            if ((_candidates[cell] & bit) == 0 || _colours[cell] != 0)
+                continue;
+            boolean seesFirst = false, seesSecond = false;
+            for (int i = 0; i < length && !(seesFirst && seesSecond); ++i)
+                if (Sees(cell, _queue[i])) {
+                    if (_colours[_queue[i]] == colour)
+                        seesFirst = true;
+                    else
+                        seesSecond = true;
+                }
+            if (seesFirst && seesSecond) {
+                _candidates[cell] &= ~bit;
+                progress = true;
+            }
+        }
+        if (progress)
+            Use(SIMPLE_COLOURING);
+        return progress;
+    }
+
+    // for each digit, the positions (0-8) in house where it is a candidate
+    private void Positions(int house, int[] positions) {
+        for (int d = 0; d < 9; ++d)
+            positions[d] = 0;
+        int[] cells = HOUSES[house];
+        for (int i = 0; i < 9; ++i)
+            for (int c = _candidates[cells[i]]; c != 0; c &= c - 1)
+                positions[Integer.numberOfTrailingZeros(c)] |= 1 << i;
+    }
+
+    private void Remove(int[] cells, int digits) {
+        for (int cell : cells)
+            _candidates[cell] &= ~digits;
+    }
+
+    private static boolean Sees(int a, int b) {
+        return ROW[a] == ROW[b] || COLUMN[a] == COLUMN[b] || BOX[a] == BOX[b];
+    }
+
+    private int Union(int[] cells) {
+        int union = 0;
+        for (int cell : cells)
+            union |= _candidates[cell];
+        return union;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sudokuSolver;
+
+// Receives the events of a DLX search.  The methods do nothing, so the
+// engines can call NONE unconditionally: while NONE is the only listener
+// the JIT sees, every call site inlines to nothing and an uninstrumented
+// search pays nothing for the hooks.  Override the events you need, as
+// SearchStats does.
+public class SearchListener {
+    public static final SearchListener NONE = new SearchListener();
+
+    // a search node was visited; depth counts the rows chosen by the search
+    public void Node(int depth) { }
+
+    // the search branches at depth on a column with length rows
+    public void Branch(int depth, int length) { }
+
+    // a chosen row failed and the search moved on to the next row, or gave
+    // up on the column, at depth
+    public void Backtrack(int depth) { }
+
+    // the search covered or uncovered a column; covering the given rows and
+    // restoring the matrix after a search are not reported
+    public void Cover() { }
+
+    public void Uncover() { }
+}
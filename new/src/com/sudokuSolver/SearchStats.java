@@ -0,0 +1,120 @@
+package com.sudokuSolver;
+
+import java.util.Arrays;
+
+// Tallies how much work a search took: nodes visited, Cover and Uncover
+// calls, backtracks, the deepest point reached, the length of the column
+// chosen at each depth, and wall time.  Pass one to SudokuSolver.Solve to
+// get the numbers back next to the solved grid; the column lengths are a
+// direct reading of how much guessing a puzzle needs.  Covers and uncovers
+// are the search's own, so both engines report the same numbers for the
+// same puzzle: covering the givens and restoring the matrix afterwards are
+// not counted.
+public class SearchStats extends SearchListener {
+    private long _backtracks;
+    private int[] _branches = new int[82];      // times the search branched at each depth
+    private long _covers;
+    private int[] _lastLengths = new int[82];   // length of the column most recently chosen at each depth
+    private long[] _lengthSums = new long[82];  // sum of the lengths chosen at each depth
+    private int _maxDepth;
+    private long _nanos;
+    private long _nodes;
+    private long _uncovers;
+
+    public SearchStats() { }
+
+    public long Backtracks() {
+        return _backtracks;
+    }
+
+    public long Covers() {
+        return _covers;
+    }
+
+    public long Uncovers() {
+        return _uncovers;
+    }
+
+    public int MaxDepth() {
+        return _maxDepth;
+    }
+
+    public long Nanos() {
+        return _nanos;
+    }
+
+    public long Nodes() {
+        return _nodes;
+    }
+
+    // the length of the column chosen at depth the last time the search
+    // got there; after a successful solve, the column on the solution path
+    public int ColumnLength(int depth) {
+        return depth < _lastLengths.length ? _lastLengths[depth] : 0;
+    }
+
+    // the average length of the columns chosen at depth, 0 if the search
+    // never branched there
+    public double AverageColumnLength(int depth) {
+        if (depth >= _branches.length || _branches[depth] == 0)
+            return 0;
+        return (double) _lengthSums[depth] / _branches[depth];
+    }
+
+    public void Reset() {
+        _backtracks = _covers = _uncovers = _nodes = _nanos = 0;
+        _maxDepth = 0;
+        for (int i = 0; i < _branches.length; ++i) {
+            _branches[i] = _lastLengths[i] = 0;
+            _lengthSums[i] = 0;
+        }
+    }
+
+    @Override
+    public void Node(int depth) {
+        ++_nodes;
+        if (depth > _maxDepth)
+            _maxDepth = depth;
+    }
+
+    @Override
+    public void Branch(int depth, int length) {
+        if (depth >= _branches.length)
+            Grow(depth + 1);
+        ++_branches[depth];
+        _lastLengths[depth] = length;
+        _lengthSums[depth] += length;
+    }
+
+    @Override
+    public void Backtrack(int depth) {
+        ++_backtracks;
+    }
+
+    @Override
+    public void Cover() {
+        ++_covers;
+    }
+
+    @Override
+    public void Uncover() {
+        ++_uncovers;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d covers, %d uncovers, %d backtracks, depth %d, %.1f us",
+                _nodes, _covers, _uncovers, _backtracks, _maxDepth, _nanos / 1e3);
+    }
+
+    void AddNanos(long nanos) {
+        _nanos += nanos;
+    }
+
+    private void Grow(int depth) {
+        int length = Math.max(depth, _branches.length * 2);
+        _branches = Arrays.copyOf(_branches, length);
+        _lastLengths = Arrays.copyOf(_lastLengths, length);
+        _lengthSums = Arrays.copyOf(_lengthSums, length);
+    }
+}
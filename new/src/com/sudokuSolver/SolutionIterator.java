@@ -0,0 +1,72 @@
+package com.sudokuSolver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hands out the solutions of a puzzle one at a time, as SudokuSolver.Solutions
+// finds them.  The search stays paused in the solver's array engine between
+// calls (see ArrayDLX.Resume), so however many solutions a puzzle has, the
+// iterator holds only the current one.  Each call to next returns a new
+// array the caller may keep.
+public class SolutionIterator implements Iterator<int[]> {
+    private final int _dimension;
+    private boolean _done;
+    private final ArrayDLX _dlx;
+    private boolean _ready = false; // a solution is in place and not yet returned
+
+    // the givens are already covered in dlx unless they clashed
+    SolutionIterator(ArrayDLX dlx, int dimension, boolean clashed) {
+        _dimension = dimension;
+        _dlx = dlx;
+        _done = clashed;
+        if (clashed)
+            dlx.Restore();
+        else
+            dlx.Begin(1); // FOUND at every solution from the first on
+    }
+
+    public boolean hasNext() {
+        if (_ready)
+            return true;
+        if (_done)
+            return false;
+
+        if (_dlx.Resume(Long.MAX_VALUE) == ArrayDLX.FOUND)
+            _ready = true;
+        else
+            Abandon();
+        return _ready;
+    }
+
+    public int[] next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        int[] solution = new int[_dimension * _dimension];
+        for (int i = 0; i < solution.length; ++i) {
+            int rowIndex = _dlx.SolutionRow(i);
+            solution[rowIndex / _dimension] = rowIndex % _dimension + 1;
+        }
+        _ready = false;
+        return solution;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    // the number of search nodes visited so far
+    public long Nodes() {
+        return _dlx.Nodes();
+    }
+
+    // stops the enumeration and hands the solver back; called automatically
+    // once the last solution has been returned
+    public void Abandon() {
+        if (!_done) {
+            _dlx.Restore();
+            _done = true;
+        }
+        _ready = false;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sudokuSolver;
+
+// Answers "can this position still be solved?" after every move of a game
+// without solving from scratch.  The tracker keeps a private exact cover
+// template with the row of every placed value covered: placing a value
+// covers one row, clearing one uncovers it, and Solvable searches on from
+// that state only.  Better still, answers are remembered: while the
+// player's values agree with the last solution found, and after any value
+// is cleared from a solvable position, the position is known to be
+// solvable; once a position is unsolvable, placing more values keeps it
+// so.  A search only runs when a move departs from the known solution or
+// a value is cleared from an unsolvable position.
+public class SolvabilityTracker {
+    private final int _cells;
+    private int _clashes = 0;     // placed values whose rows could not be covered
+    private final boolean[] _covered; // whether each placed value's row is covered
+    private final int _dimension;
+    private final ArrayDLX _dlx;
+    private boolean _known = false;   // whether _solvable still answers Solvable
+    private long _nodes = 0;
+    private boolean _solvable = false; // if true, _solution fits every placed value
+    private final int[] _solution;    // the last solution found
+    private final int[] _values;      // the value placed in each cell, 0 if none
+
+    // tracks a standard 9x9 puzzle
+    public SolvabilityTracker(int[] sudoku) {
+        this(new SudokuSolver(9, SudokuSolver.ARRAY_ENGINE), sudoku);
+    }
+
+    /**
+     * @param solver a solver the tracker takes over; its template is
+     *               covered and uncovered as the game goes, so the solver
+     *               must not be used for anything else
+     * @param sudoku the puzzle's givens, 0 marking blank cells
+     */
+    public SolvabilityTracker(SudokuSolver solver, int[] sudoku) {
+        _dimension = solver.Dimension();
+        _cells = _dimension * _dimension;
+        _dlx = new ArrayDLX(solver.Template());
+        _covered = new boolean[_cells];
+        _solution = new int[_cells];
+        _values = new int[_cells];
+
+        for (int i = 0; i < _cells; ++i)
+            if (sudoku[i] > 0 && sudoku[i] <= _dimension)
+                Place(i, sudoku[i]);
+    }
+
+    // the number of search nodes the last call to Solvable visited; 0 if
+    // it answered from the known solution
+    public long Nodes() {
+        return _nodes;
+    }
+
+    // puts value in cell, replacing whatever was there
+    public void Place(int cell, int value) {
+        if (_values[cell] != 0)
+            Clear(cell);
+
+        _values[cell] = value;
+        _covered[cell] = _dlx.AddRowToSolution(cell * _dimension + value - 1);
+        if (!_covered[cell])
+            ++_clashes;
+        if (_known && _solvable && _solution[cell] != value)
+            _known = false; // the move departs from the known solution
+    }
+
+    public void Clear(int cell) {
+        int value = _values[cell];
+        if (value == 0)
+            return;
+
+        _values[cell] = 0;
+        if (_known && !_solvable)
+            _known = false; // a position with fewer values may have solutions
+        if (!_covered[cell]) {
+            --_clashes;
+            return;
+        }
+        _dlx.RemoveRowFromSolution(cell * _dimension + value - 1);
+        _covered[cell] = false;
+
+        // freeing the row's columns may let clashing values in
+        for (int i = 0; i < _cells && _clashes > 0; ++i)
+            if (_values[i] != 0 && !_covered[i]) {
+                _covered[i] = _dlx.AddRowToSolution(i * _dimension + _values[i] - 1);
+                if (_covered[i])
+                    --_clashes;
+            }
+    }
+
+    // tells the tracker a solution that fits every placed value, such as
+    // the one the puzzle was generated from, so Solvable needs no search
+    // until a move departs from it
+    public void KnownSolution(int[] solution) {
+        System.arraycopy(solution, 0, _solution, 0, _cells);
+        _solvable = true;
+        _known = _clashes == 0;
+    }
+
+    // whether the placed values can be completed to a full solution
+    public boolean Solvable() {
+        _nodes = 0;
+        if (_clashes > 0)
+            return false;
+        if (_known)
+            return _solvable;
+
+        _solvable = _dlx.Search();
+        if (_solvable)
+            for (int i = 0; i < _cells; ++i) {
+                int rowIndex = _dlx.SolutionRow(i);
+                _solution[rowIndex / _dimension] = rowIndex % _dimension + 1;
+            }
+        _nodes = _dlx.Nodes();
+        _dlx.Unwind();
+        _known = true;
+        return _solvable;
+    }
+}
@@ -0,0 +1,46 @@
+package com.sudokuSolver;
+
+// Hands each thread its own array-engine SudokuSolver, so many threads can
+// solve at once without locking and without sharing anything mutable.  The
+// template is built once, by a prototype solver that never solves anything,
+// and each thread's solver starts from a copy of it; the decode tables are
+// shared read-only.  With caller-owned buffers, steady-state solving through
+// Solve(source, destination) allocates nothing.
+public class SolverPool {
+    private final ThreadLocal<SudokuSolver> _solvers;
+
+    public SolverPool() {
+        this(3, 3);
+    }
+
+    /**
+     * @param boxRows height of a box
+     * @param boxColumns width of a box; the dimension is boxRows * boxColumns
+     */
+    public SolverPool(int boxRows, int boxColumns) {
+        final SudokuSolver prototype = new SudokuSolver(boxRows, boxColumns, SudokuSolver.ARRAY_ENGINE);
+        prototype.Template(); // built here, before any thread can see the prototype
+        _solvers = new ThreadLocal<SudokuSolver>() {
+            @Override
+            protected SudokuSolver initialValue() {
+                return new SudokuSolver(prototype);
+            }
+        };
+    }
+
+    // the calling thread's solver, created on its first call; it must not
+    // be handed to other threads
+    public SudokuSolver Get() {
+        return _solvers.get();
+    }
+
+    // see SudokuSolver.Solve(int[], int[])
+    public boolean Solve(int[] source, int[] destination) {
+        return _solvers.get().Solve(source, destination);
+    }
+
+    // see SudokuSolver.CountSolutions
+    public int CountSolutions(int[] sudoku, int limit) {
+        return _solvers.get().CountSolutions(sudoku, limit);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sudokuSolver;
+
+// The operations every sudoku solving strategy offers, so callers can
+// pick a strategy without caring how it works.  SudokuSolver reduces the
+// puzzle to EXACT COVER; BitmaskSolver propagates candidate masks.
+public interface SudokuEngine {
+    /**
+     * Solves sudoku in place if it is solvable.
+     *
+     * @param sudoku an array of integers representing a sudoku using 0 to mark blank cells
+     * @return true if puzzle is solved, false otherwise
+     */
+    boolean Solve(int[] sudoku);
+
+    /**
+     * Counts the solutions of sudoku, giving up once limit of them have
+     * been found.  The puzzle is left unchanged.
+     *
+     * @return the number of solutions found, never more than limit, and 0
+     *         if limit is 0 or less
+     */
+    int CountSolutions(int[] sudoku, int limit);
+}
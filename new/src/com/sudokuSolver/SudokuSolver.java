@@ -1,66 +1,385 @@
 package com.sudokuSolver;
 
-import java.util.ArrayList;
-import java.util.Stack;
-
 // Encapsulates the reduction of a sudoku to an EXACT COVER instance and
-// its solution via DLX.  Users need only call Solve.
-public class SudokuSolver {
-    private int _boxDimension;
+// its solution via DLX.  Users need only call Solve.  A solver keeps its
+// matrices in its own fields, so it must not be shared between threads;
+// SolverPool hands each thread its own.
+public class SudokuSolver implements SudokuEngine {
+    public static final int NODE_ENGINE = 0;  // DLX over a DLXMatrix of DLXNode objects
+    public static final int ARRAY_ENGINE = 1; // ArrayDLX over a DLXArrayMatrix
+
+    // results of a time-sliced or budgeted solve (see Start, Resume and
+    // Solve(int[], long, long, CancellationToken))
+    public static final int SOLVED = 0;
+    public static final int UNSOLVABLE = 1;
+    public static final int PAUSED = 2;
+    public static final int TIMED_OUT = 3; // the time or node budget ran out first
+    public static final int CANCELLED = 4; // the cancellation token was cancelled
+
+    private ArrayDLX _arrayDlx;
+    private DLXArrayMatrix _arrayMatrix;
+    private int _boxColumns; // width of a box
+    private int _boxRows;    // height of a box
     private int _cells;
-    private ArrayList<DLXNode> _columns;
     private int _dimension;
     private DLX _dlx;
-    private ArrayList<Integer> _givenRows;
+    private int _engine = NODE_ENGINE;
+    private SearchListener _listener = SearchListener.NONE;
+    private int[] _givenRows;
+    private int _givenCount;
     private DLXMatrix _matrix;
-    private Stack<DLXNode> _solution;
+    private int[] _pending; // where the solve begun by Start writes its solution, if any
+    private int[] _rowCell;  // decode tables: placing _rowValue[r] in cell _rowCell[r]
+    private int[] _rowValue; // is row r of the array engine's template
     private int[] _sudoku;
 
 
     public SudokuSolver() {
-        _dimension = 9;
-        _boxDimension = (int)Math.sqrt(_dimension);
-        _cells = _dimension * _dimension;
+        this(9);
     }
 
     /**
+     * Boxes are as square as the dimension allows: a perfect square n * n
+     * has n x n boxes, and otherwise the box is the factor pair closest to
+     * square, laid out wider than tall (6 has 2x3 boxes, 12 has 3x4).
+     *
      * @param dimension cardinality of a house; standard sudoku is dimension 9
      */
     public SudokuSolver(int dimension) {
+        int boxRows = (int)Math.sqrt(dimension);
+        while (dimension % boxRows != 0)
+            --boxRows;
+
         _dimension = dimension;
-        _boxDimension = (int)Math.sqrt(dimension);
+        _boxRows = boxRows;
+        _boxColumns = dimension / boxRows;
         _cells = dimension * dimension;
     }
 
+    /**
+     * @param dimension cardinality of a house; standard sudoku is dimension 9
+     * @param engine NODE_ENGINE or ARRAY_ENGINE; both find the same solutions.
+     *               NODE_ENGINE builds a fresh matrix for every puzzle, while
+     *               ARRAY_ENGINE builds the full matrix once per solver and
+     *               restores it after each solve, so it allocates nothing
+     *               once warmed up.
+     */
+    public SudokuSolver(int dimension, int engine) {
+        this(dimension);
+        _engine = engine;
+    }
+
+    /**
+     * For grids whose boxes are not the default shape.  The dimension is
+     * boxRows * boxColumns; a 6x6 grid of 3x2 boxes, say, is
+     * SudokuSolver(3, 2, engine).
+     *
+     * @param boxRows height of a box
+     * @param boxColumns width of a box
+     * @param engine NODE_ENGINE or ARRAY_ENGINE
+     */
+    public SudokuSolver(int boxRows, int boxColumns, int engine) {
+        _dimension = boxRows * boxColumns;
+        _boxRows = boxRows;
+        _boxColumns = boxColumns;
+        _cells = _dimension * _dimension;
+        _engine = engine;
+    }
+
+    // a solver of prototype's shape whose template is a copy of prototype's,
+    // which must be pristine; the decode tables, never written once built,
+    // are shared
+    SudokuSolver(SudokuSolver prototype) {
+        this(prototype._boxRows, prototype._boxColumns, ARRAY_ENGINE);
+        DLXArrayMatrix template = prototype.Template();
+        _rowCell = prototype._rowCell;
+        _rowValue = prototype._rowValue;
+        _arrayMatrix = new DLXArrayMatrix(template);
+        _arrayDlx = new ArrayDLX(_arrayMatrix);
+    }
+
+    public int Dimension() {
+        return _dimension;
+    }
+
+    /**
+     * The array engine's template, built on first use.  Placing value v
+     * (counting from 0) in cell i is row i * dimension + v.  The template
+     * belongs to this solver; copy it with new DLXArrayMatrix(template)
+     * before covering anything in it.
+     */
+    public DLXArrayMatrix Template() {
+        ArrayEngine();
+        return _arrayMatrix;
+    }
+
+    // the number of search nodes the last call to Solve visited
+    public long Nodes() {
+        if (_engine == ARRAY_ENGINE)
+            return _arrayDlx == null ? 0 : _arrayDlx.Nodes();
+        return _dlx == null ? 0 : _dlx.Nodes();
+    }
+
     /**
      * This is the only function you ever need call.  If sudoku parameter is
      * solvable, this function will solve it in place and return true.  The
      * array parameter will be mutated; make a copy before the call if you
      * want to retain the unsolved puzzle.
      *
-     * @param sudoku an array of 81 integers representing a sudoku using 0 to mark blank cells
+     * @param sudoku an array of dimension * dimension integers representing a sudoku using 0 to mark blank cells
      * @return true if puzzle is solved, false otherwise
     */
     public boolean Solve(int[] sudoku) {
+        return Solve(sudoku, sudoku);
+    }
+
+    /**
+     * Solves source into destination, leaving source unchanged; they may be
+     * the same array.  On the array engine this allocates nothing once the
+     * template is built, so a thread solving many puzzles with its own
+     * solver (see SolverPool) and its own buffers produces no garbage.
+     *
+     * @param source an array of dimension * dimension integers representing a sudoku using 0 to mark blank cells
+     * @param destination receives the solution; only written if true is returned
+     * @return true if puzzle is solved, false otherwise
+     */
+    public boolean Solve(int[] source, int[] destination) {
+        if (_engine == NODE_ENGINE)
+            return SolveNodes(source, destination, Long.MAX_VALUE, Long.MAX_VALUE, null) == SOLVED;
+
+        if (!Start(source, destination))
+            return false;
+        return Resume(Long.MAX_VALUE) == SOLVED;
+    }
+
+    /**
+     * Solves sudoku like Solve, but gives up once maxNanos of wall time have
+     * passed, maxNodes search nodes have been visited, or token is cancelled,
+     * whichever comes first.  The limits are checked every
+     * DLX.CHECK_INTERVAL nodes, which keeps the check off the search's hot
+     * path; a solve may overrun them by that many nodes.  Use this for grids
+     * from untrusted sources, where a pathological puzzle could otherwise
+     * keep the search running indefinitely.
+     *
+     * @param sudoku an array of dimension * dimension integers representing a sudoku using 0 to mark blank cells
+     * @param maxNanos wall time allowed, or Long.MAX_VALUE for no limit
+     * @param maxNodes search nodes allowed, or Long.MAX_VALUE for no limit
+     * @param token cancels the solve from another thread; may be null
+     * @return SOLVED, UNSOLVABLE, TIMED_OUT or CANCELLED; sudoku is only
+     *         changed when SOLVED
+     */
+    public int Solve(int[] sudoku, long maxNanos, long maxNodes, CancellationToken token) {
+        if (_engine == NODE_ENGINE)
+            return SolveNodes(sudoku, sudoku, maxNanos, maxNodes, token);
+
+        if (!Start(sudoku))
+            return UNSOLVABLE;
+
+        long start = System.nanoTime();
+        while (true) {
+            int result = Resume(Math.min(DLX.CHECK_INTERVAL, maxNodes - _arrayDlx.Nodes()));
+            if (result != PAUSED)
+                return result;
+
+            if (token != null && token.Cancelled())
+                result = CANCELLED;
+            else if (_arrayDlx.Nodes() >= maxNodes || System.nanoTime() - start >= maxNanos)
+                result = TIMED_OUT;
+            if (result != PAUSED) {
+                Abandon();
+                return result;
+            }
+        }
+    }
+
+    // the node engine builds a fresh matrix for every puzzle
+    private int SolveNodes(int[] source, int[] destination, long maxNanos, long maxNodes, CancellationToken token) {
         Reset();
 
-        _sudoku = sudoku;
+        _sudoku = source;
         BuildMatrix();
-        _dlx.Solve(_matrix, _givenRows);
-        _solution = _dlx.Solution();
-        if (_solution.size() != _cells)
-            return false; // puzzle is unsolvable
+        _dlx.Listen(_listener);
+        _dlx.Limit(maxNodes, maxNanos, token);
+        _dlx.Solve(_matrix, _givenRows, _givenCount);
+        if (_dlx.Cancelled())
+            return CANCELLED;
+        if (_dlx.Expired())
+            return TIMED_OUT;
+        if (_dlx.SolutionSize() != _cells)
+            return UNSOLVABLE;
+
+        OutputSolution(destination);
+        return SOLVED;
+    }
 
-        OutputSolution();
+    /**
+     * Solves sudoku exactly as Solve(sudoku) does, and records in stats how
+     * much searching it took: nodes visited, Cover/Uncover calls, backtracks,
+     * the deepest point reached, the column length chosen at each depth and
+     * the wall time.  stats is reset first.  Solves without stats skip the
+     * bookkeeping entirely.
+     *
+     * @param sudoku an array of dimension * dimension integers representing a sudoku using 0 to mark blank cells
+     * @param stats receives the search effort
+     * @return true if puzzle is solved, false otherwise
+     */
+    public boolean Solve(int[] sudoku, SearchStats stats) {
+        stats.Reset();
+        _listener = stats;
+        long start = System.nanoTime();
+        try {
+            return Solve(sudoku);
+        }
+        finally {
+            stats.AddNanos(System.nanoTime() - start);
+            _listener = SearchListener.NONE;
+            if (_arrayDlx != null)
+                _arrayDlx.Listen(SearchListener.NONE);
+        }
+    }
+
+    /**
+     * Begins a time-sliced solve on the array engine.  Nothing is searched
+     * until Resume is called, and the solver cannot be used for anything
+     * else until Resume has returned SOLVED or UNSOLVABLE or Abandon has
+     * been called.
+     *
+     * @param sudoku the puzzle; it will be solved in place, as with Solve
+     * @return false if the puzzle's givens clash, in which case there is
+     *         nothing to resume
+     */
+    public boolean Start(int[] sudoku) {
+        return Start(sudoku, sudoku);
+    }
+
+    // the array engine covers the givens' rows in the template matrix; the
+    // search and Restore follow in Resume
+    private boolean Start(int[] source, int[] destination) {
+        ArrayDLX dlx = ArrayEngine();
+        dlx.Listen(_listener);
+        if (!AddGivens(source)) {
+            dlx.Restore();
+            return false;
+        }
+
+        _pending = destination;
+        dlx.Begin(1);
         return true;
     }
 
+    /**
+     * Searches for at most maxNodes more nodes and returns control to the
+     * caller.  The search stack lives in arrays, not on the Java stack, so
+     * a PAUSED solve may be resumed later, from any thread, exactly where
+     * it stopped.
+     *
+     * @return SOLVED (the puzzle given to Start now holds the solution),
+     *         UNSOLVABLE, or PAUSED
+     */
+    public int Resume(long maxNodes) {
+        int result = _arrayDlx.Resume(maxNodes);
+        if (result == ArrayDLX.PAUSED)
+            return PAUSED;
+
+        if (result == ArrayDLX.FOUND)
+            for (int i = 0; i < _cells; ++i) {
+                int rowIndex = _arrayDlx.SolutionRow(i);
+                _pending[_rowCell[rowIndex]] = _rowValue[rowIndex];
+            }
+
+        Abandon();
+        return result == ArrayDLX.FOUND ? SOLVED : UNSOLVABLE;
+    }
+
+    // gives up on the solve begun by Start and readies the solver for reuse
+    public void Abandon() {
+        _arrayDlx.Restore();
+        _pending = null;
+    }
+
+    /**
+     * Counts the solutions of a puzzle, giving up once limit of them have
+     * been found; a limit of 2 is enough to tell whether a puzzle's solution
+     * is unique.  The search runs on this solver's array engine template
+     * whichever engine Solve uses, and the puzzle is left unchanged.
+     *
+     * @param sudoku an array of dimension * dimension integers representing a sudoku using 0 to mark blank cells
+     * @param limit the most solutions worth counting; 0 or less counts none
+     * @return the number of solutions found, never more than limit, and 0
+     *         if limit is 0 or less
+     */
+    public int CountSolutions(int[] sudoku, int limit) {
+        ArrayDLX dlx = ArrayEngine();
+        int count = 0;
+        if (AddGivens(sudoku))
+            count = dlx.Count(limit);
+
+        dlx.Restore();
+        return count;
+    }
+
+    /**
+     * Enumerates every solution of a puzzle lazily: each call to next on the
+     * iterator runs the search on to the next solution and pauses it there,
+     * so memory stays constant however many solutions there are.  The search
+     * runs on this solver's array engine template, so the solver cannot be
+     * used for anything else until the iterator's hasNext has returned false
+     * or its Abandon has been called.
+     *
+     * @param sudoku an array of dimension * dimension integers representing a sudoku using 0 to mark blank cells; left unchanged
+     */
+    public SolutionIterator Solutions(int[] sudoku) {
+        ArrayDLX dlx = ArrayEngine();
+        dlx.Listen(_listener);
+        return new SolutionIterator(dlx, _dimension, !AddGivens(sudoku));
+    }
+
+    // covers the rows of the puzzle's givens in the array engine's template;
+    // returns false if two givens clash
+    private boolean AddGivens(int[] sudoku) {
+        for (int i = 0; i < _cells; ++i)
+            if (sudoku[i] > 0 && sudoku[i] <= _dimension)
+                if (!_arrayDlx.AddRowToSolution(i * _dimension + sudoku[i] - 1))
+                    return false;
+        return true;
+    }
+
+    // the array engine, built on first use
+    private ArrayDLX ArrayEngine() {
+        if (_arrayDlx == null) {
+            BuildArrayMatrix();
+            _arrayDlx = new ArrayDLX(_arrayMatrix);
+        }
+        return _arrayDlx;
+    }
+
+    // fills the decode tables, shared by both engines, on first use
+    private void BuildDecodeTables() {
+        if (_rowCell != null)
+            return;
+
+        _rowCell = new int[_cells * _dimension];
+        _rowValue = new int[_cells * _dimension];
+        for (int rowIndex = 0; rowIndex < _rowCell.length; ++rowIndex) {
+            _rowCell[rowIndex] = rowIndex / _dimension;
+            _rowValue[rowIndex] = rowIndex % _dimension + 1;
+        }
+    }
+
+    // builds the node engine's matrix for sudoku without searching it;
+    // package-private so the matrix build can be benchmarked on its own
+    void BuildMatrix(int[] sudoku) {
+        Reset();
+        _sudoku = sudoku;
+        BuildMatrix();
+    }
+
     private void Reset() {
-        _givenRows = new ArrayList<Integer>();
-        _matrix = new DLXMatrix(_cells * 4);
+        BuildDecodeTables();
+        if (_givenRows == null)
+            _givenRows = new int[_cells];
+        _givenCount = 0;
         _dlx = new DLX();
-        _solution = new Stack<DLXNode>();
-        _columns = new ArrayList<DLXNode>();
     }
 
     // computes the index of the column encoding the constraint on a and b
@@ -68,21 +387,18 @@ public class SudokuSolver {
         return (a * _dimension) + b + (offset * _cells);
     }
 
-    // computes the grid (row, column) coordinate of a constraint column
-    private int[] ConstraintRowColumn(int columnIndex) {
-        return new int[] { columnIndex / _dimension, columnIndex % _dimension };
-    }
-
     /*
         returns the index of the box containing (row, column)
         in a 9x9 sudoku, boxes are indexed
                                 0 1 2
                                 3 4 5
                                 6 7 8
-        and each contains 3 * 3 = 9 cells
+        and each contains 3 * 3 = 9 cells.  In general a band of
+        _boxRows grid rows holds dimension / _boxColumns = _boxRows
+        boxes, numbered left to right and then band by band
         */
     private int BoxIndex(int row, int column) {
-        return (row - (row % _boxDimension)) + (column / _boxDimension);
+        return (row / _boxRows) * _boxRows + (column / _boxColumns);
     }
 
     // converts a (row, column) coordinate to an index into the one-dimensional sudoku array
@@ -90,46 +406,38 @@ public class SudokuSolver {
         return row * _dimension + column;
     }
 
-    private boolean OutputSolution() {
-        // the solution stack has one node from each
-        // of the rows whose set union constitutes the
-        // sudoku's solution; we need to reverse the
-        // encoding to build the solved puzzle
-        DLXNode node;
-        int row, column = 0, value, columnIndex;
-        while (_solution.size() > 0) {
-            value = row = -1;
-            node = _solution.pop();
-            while (value < 0 || row < 0) {
-                columnIndex = node.column.index;
-                if (columnIndex < _cells) { // this column encodes the row-column constraint
-                    int[] rowColumn = ConstraintRowColumn(columnIndex);
-                    row = rowColumn[0];
-                    column = rowColumn[1];
-                }
-                else if (columnIndex >= _cells * 3) // this one the box-value constraint
-                    value = ConstraintRowColumn(columnIndex)[1];
-                node = node.right;
-            }
-            int cell = FlatArrayIndex(row, column);
-            _sudoku[cell] = value + 1;
+    private void OutputSolution(int[] destination) {
+        // the solution has one node from each of the
+        // rows whose set union constitutes the sudoku's
+        // solution; every node of a row carries the row's
+        // index in the array engine's numbering, which
+        // the decode tables turn back into a placement
+        for (int i = 0; i < _dlx.SolutionSize(); ++i) {
+            int rowIndex = _dlx.SolutionNode(i).index;
+            destination[_rowCell[rowIndex]] = _rowValue[rowIndex];
         }
+    }
 
-        return true;
+    // fills columnIndices with the indices of the columns representing
+    // the constraints satisfied by placing value at (row, column)
+    private void RowColumnIndices(int row, int column, int value, int[] columnIndices) {
+        columnIndices[0] = ConstraintColumnIndex(row, column, 0);
+        columnIndices[1] = ConstraintColumnIndex(row, value, 1);
+        columnIndices[2] = ConstraintColumnIndex(column, value, 2);
+        columnIndices[3] = ConstraintColumnIndex(BoxIndex(row, column), value, 3);
     }
 
     // builds the row representing placement of value at (row, column)
     // and links it into the matrix; returns the row's index
     private int CreateRow(int row, int column, int value){
         // indices of the columns representing the operative constraints
-        int[] columnIndices = { ConstraintColumnIndex(row, column, 0),
-                ConstraintColumnIndex(row, value, 1),
-                ConstraintColumnIndex(column, value, 2),
-                ConstraintColumnIndex(BoxIndex(row, column), value, 3) };
+        int[] columnIndices = new int[4];
+        RowColumnIndices(row, column, value, columnIndices);
 
         // each row has exactly four entries--one for each constraint
         DLXNode[] nodes = { new DLXNode(), new DLXNode(), new DLXNode(), new DLXNode() };
         for (int i = 0; i < 4; ++i) {
+            nodes[i].index = FlatArrayIndex(row, column) * _dimension + value;
             _matrix.AppendToColumn(nodes[i], columnIndices[i]);
             if (i < 3)
                 nodes[i].right = nodes[i + 1];
@@ -160,6 +468,9 @@ public class SudokuSolver {
      * There are 9 possible assignments.  Hence there are 9 * 81 = 729 rows.
      * Because each assignment satisfies all four constraints, each row  has exactly
      * four entries. The overall structure has 236,196 cells 98.8% of which contain zero.
+     *
+     * In general a dimension d grid has d^2 * 4 columns and d^3 rows: 46,656 rows
+     * and 5,184 columns for 36x36, still with only four entries per row.
     */
     private void BuildMatrix() {
         _matrix = new DLXMatrix(_cells * 4);
@@ -170,11 +481,26 @@ public class SudokuSolver {
             column = i % _dimension;
             if (_sudoku[i] > 0 && _sudoku[i] <= _dimension) {  // cell contains a given; need only one row
                 rowIndex = CreateRow(row, column, _sudoku[i] - 1);
-                _givenRows.add(rowIndex);
+                _givenRows[_givenCount++] = rowIndex;
             }
             else
                 for (int j = 0; j < _dimension; ++j)
                     CreateRow(row, column, j);
         }
     }
+
+    // builds the array engine's template: the full matrix with one row for
+    // every (cell, value) pair, so the placement of value v in cell i is row
+    // i * dimension + v whatever the puzzle
+    private void BuildArrayMatrix() {
+        BuildDecodeTables();
+        _arrayMatrix = new DLXArrayMatrix(_cells * 4, _cells * _dimension, _cells * _dimension * 4);
+        int[] columnIndices = new int[4];
+
+        for (int i = 0; i < _cells; ++i)
+            for (int j = 0; j < _dimension; ++j) {
+                RowColumnIndices(i / _dimension, i % _dimension, j, columnIndices);
+                _arrayMatrix.AddRow(columnIndices, 4);
+            }
+    }
 }
\ No newline at end of file
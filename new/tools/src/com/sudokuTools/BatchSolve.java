@@ -0,0 +1,216 @@
+package com.sudokuTools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.sudokuSolver.BitmaskSolver;
+
+// Headless bulk solver.  Reads one 81-character puzzle per line ('0' or '.'
+// for blanks), solves the puzzles on a pool of worker threads, each with
+// its own reusable solver, and writes one line per puzzle in input order:
+//     the solution                        if the puzzle has exactly one
+//     the first solution, a tab, "multiple"  if it has several
+//     "unsolvable" or "invalid"           otherwise
+// Work is handed out in chunks; the chunks' futures, kept in submission
+// order and bounded in number, are the reorder buffer.  Input and output
+// go through PuzzleReader and PuzzleWriter, and chunks are recycled, so
+// nothing is allocated per puzzle.  A summary with throughput and a solve
+// latency histogram goes to standard error.  Given a cache size, puzzles
+// go through a SolveCache, optionally spilling to a file on disk, so
+// repeated puzzles are not solved again.
+//     java -cp <classes> com.sudokuTools.BatchSolve <input> <output> [threads] [cache entries] [spill file]
+public class BatchSolve {
+    static final int CHUNK = 512;    // puzzles per task
+    static final int BUCKETS = 32;   // latency histogram buckets, powers of two in ns
+
+    // tallies, indexed by outcome
+    static final int UNIQUE = 0;
+    static final int MULTIPLE = 1;
+    static final int UNSOLVABLE = 2;
+    static final int INVALID = 3;
+    private static final String[] OUTCOMES = { "unique", "multiple", "unsolvable", "invalid" };
+    private static final byte[][] TAGS = { {}, "\tmultiple".getBytes(StandardCharsets.US_ASCII),
+            "unsolvable".getBytes(StandardCharsets.US_ASCII), "invalid".getBytes(StandardCharsets.US_ASCII) };
+
+    private final SolveCache _cache; // or null
+    private final ArrayDeque<Chunk> _free = new ArrayDeque<Chunk>();
+    private final long[] _histogram = new long[BUCKETS];
+    private final long[] _outcomes = new long[OUTCOMES.length];
+    private final ExecutorService _pool;
+    private final ThreadLocal<BitmaskSolver> _solvers = new ThreadLocal<BitmaskSolver>() {
+        @Override
+        protected BitmaskSolver initialValue() {
+            return new BitmaskSolver();
+        }
+    };
+    private final int _window; // most chunks in flight
+
+    public BatchSolve(int threads) {
+        this(threads, null);
+    }
+
+    public BatchSolve(int threads, SolveCache cache) {
+        _cache = cache;
+        _pool = Executors.newFixedThreadPool(threads);
+        _window = threads * 4;
+        for (int i = 0; i <= _window; ++i)
+            _free.add(new Chunk());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: BatchSolve <input> <output> [threads] [cache entries] [spill file]");
+            System.exit(2);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        SolveCache cache = null;
+        if (args.length > 3) {
+            int entries = Integer.parseInt(args[3]);
+            if (entries <= 0)
+                throw new IllegalArgumentException("cache entries must be positive: " + entries);
+            // the spill file holds 8 times the memory's entries; SolveCache rejects one too large to map
+            int spillEntries = (int) Math.min(8L * entries, Integer.MAX_VALUE);
+            cache = args.length > 4 ? new SolveCache(entries, Paths.get(args[4]), spillEntries)
+                    : new SolveCache(entries);
+        }
+
+        BatchSolve batch = new BatchSolve(threads, cache);
+        long start = System.nanoTime();
+        PuzzleReader in = new PuzzleReader(Paths.get(args[0]));
+        PuzzleWriter out = new PuzzleWriter(Paths.get(args[1]));
+        try {
+            batch.Run(in, out);
+        }
+        finally {
+            in.close();
+            out.close();
+            batch.Shutdown();
+            if (cache != null)
+                cache.close();
+        }
+        batch.Report(System.nanoTime() - start);
+    }
+
+    // solves every puzzle in in and writes the results to out in input order
+    public void Run(PuzzleReader in, PuzzleWriter out) throws IOException, InterruptedException {
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<Future<Chunk>>();
+        boolean more = true;
+        while (more) {
+            final Chunk chunk = _free.poll();
+            more = chunk.Read(in);
+            if (chunk._count > 0)
+                inFlight.add(_pool.submit(new Callable<Chunk>() {
+                    public Chunk call() {
+                        chunk.Solve(_solvers.get(), _cache);
+                        return chunk;
+                    }
+                }));
+            else
+                _free.add(chunk);
+
+            while (inFlight.size() >= _window || (!more && !inFlight.isEmpty()))
+                Write(Await(inFlight.poll()), out);
+        }
+    }
+
+    public void Shutdown() {
+        _pool.shutdown();
+    }
+
+    public void Report(long nanos) {
+        long total = 0;
+        for (long outcome : _outcomes)
+            total += outcome;
+
+        System.err.printf("%d puzzles in %.3f s, %.0f puzzles/s%n", total, nanos / 1e9, total / (nanos / 1e9));
+        for (int i = 0; i < OUTCOMES.length; ++i)
+            System.err.printf("  %-10s %d%n", OUTCOMES[i], _outcomes[i]);
+        System.err.println("solve latency:");
+        for (int b = 0; b < BUCKETS; ++b)
+            if (_histogram[b] > 0)
+                System.err.printf("  < %10.1f us %10d%n", (1L << b) / 1e3, _histogram[b]);
+        if (_cache != null)
+            System.err.printf("cache: %d hits, %d disk hits, %d misses, %d evictions, %d spilled%n",
+                    _cache.Hits(), _cache.DiskHits(), _cache.Misses(), _cache.Evictions(), _cache.Spills());
+    }
+
+    private static Chunk Await(Future<Chunk> future) throws InterruptedException {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // writes a finished chunk, folds its tallies into the totals and
+    // recycles it; only the reading thread calls this, so nothing here
+    // needs locking
+    private void Write(Chunk chunk, PuzzleWriter out) throws IOException {
+        for (int i = 0; i < chunk._count; ++i) {
+            int outcome = chunk._results[i];
+            if (outcome == UNIQUE || outcome == MULTIPLE)
+                out.Put(chunk._grids[i], 81);
+            out.Put(TAGS[outcome]);
+            out.EndLine();
+        }
+        for (int i = 0; i < BUCKETS; ++i)
+            _histogram[i] += chunk._histogram[i];
+        for (int i = 0; i < OUTCOMES.length; ++i)
+            _outcomes[i] += chunk._outcomes[i];
+        _free.add(chunk);
+    }
+
+    // a run of consecutive puzzles, solved in place, and their outcomes
+    private static class Chunk {
+        int _count;
+        final int[][] _grids = new int[CHUNK][81];
+        final long[] _histogram = new long[BUCKETS];
+        final long[] _outcomes = new long[OUTCOMES.length];
+        final int[] _results = new int[CHUNK];
+
+        // fills the chunk from in; returns false once the input is used up
+        boolean Read(PuzzleReader in) throws IOException {
+            Arrays.fill(_histogram, 0);
+            Arrays.fill(_outcomes, 0);
+            for (_count = 0; _count < CHUNK; ++_count) {
+                int result = in.Next(_grids[_count]);
+                if (result == PuzzleReader.END)
+                    return false;
+                _results[_count] = result == PuzzleReader.PUZZLE ? UNIQUE : INVALID;
+            }
+            return true;
+        }
+
+        // solves through cache if there is one
+        void Solve(BitmaskSolver solver, SolveCache cache) {
+            for (int i = 0; i < _count; ++i) {
+                if (_results[i] == INVALID) {
+                    ++_outcomes[INVALID];
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                if (cache != null)
+                    _results[i] = cache.Solve(_grids[i], solver);
+                else {
+                    int solutions = solver.SolveAndCount(_grids[i], 2);
+                    _results[i] = solutions == 0 ? UNSOLVABLE : solutions == 1 ? UNIQUE : MULTIPLE;
+                }
+                long nanos = System.nanoTime() - start;
+                ++_histogram[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))];
+
+                ++_outcomes[_results[i]];
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sudokuTools;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import com.sudokuRandom.Canonicalizer;
+
+// Removes puzzles that are equivalent up to symmetry (transposition, band,
+// stack, row and column swaps, relabelling) from a corpus.  Each puzzle is
+// reduced to its minimum-lexicographic form with Canonicalizer; the first
+// puzzle of each form is written as it was read, or in canonical form with
+// -canonical.  Counts and canonicalization throughput go to standard error.
+//     java -cp <classes> com.sudokuTools.Dedupe <input> <output> [-canonical]
+public class Dedupe {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: Dedupe <input> <output> [-canonical]");
+            System.exit(2);
+        }
+        boolean writeCanonical = args.length > 2 && args[2].equals("-canonical");
+
+        Canonicalizer canonicalizer = new Canonicalizer();
+        HashSet<Form> seen = new HashSet<Form>();
+        int[] sudoku = new int[81];
+        int[] canonical = new int[81];
+        long puzzles = 0, invalid = 0, nanos = 0;
+
+        PuzzleReader in = new PuzzleReader(Paths.get(args[0]));
+        PuzzleWriter out = new PuzzleWriter(Paths.get(args[1]));
+        try {
+            int result;
+            while ((result = in.Next(sudoku)) != PuzzleReader.END) {
+                if (result == PuzzleReader.INVALID) {
+                    ++invalid;
+                    continue;
+                }
+                ++puzzles;
+                long start = System.nanoTime();
+                canonicalizer.canonicalize(sudoku, canonical);
+                nanos += System.nanoTime() - start;
+
+                if (seen.add(new Form(canonical))) {
+                    out.Put(writeCanonical ? canonical : sudoku, 81);
+                    out.EndLine();
+                }
+            }
+        }
+        finally {
+            in.close();
+            out.close();
+        }
+
+        System.err.printf("%d puzzles, %d distinct up to symmetry, %d invalid lines, %.0f puzzles/s%n",
+                puzzles, seen.size(), invalid, puzzles / (nanos / 1e9));
+    }
+
+    // a canonical form packed as SolveCache packs keys
+    private static final class Form {
+        private final long[] _packed = new long[5];
+
+        Form(int[] canonical) {
+            SolveCache.Pack(canonical, _packed);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(_packed);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Form && Arrays.equals(_packed, ((Form) other)._packed);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sudokuTools;
+
+import java.lang.management.ManagementFactory;
+
+import com.sudokuSolver.SudokuSolver;
+
+// Compares the DLXNode engine with the array-backed engine on the same
+// puzzles, reporting search nodes per second and bytes allocated per solve.
+// Allocation is read from the HotSpot per-thread counter, so run this on a
+// desktop JVM:  java -cp <classes> com.sudokuTools.EngineBenchmark [rounds]
+public class EngineBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int[][][] corpora = { Puzzles.Generated(1, 50), Puzzles.Generated(3, 50), Puzzles.Hard() };
+        String[] names = { "easy", "hard", "hardest" };
+
+        for (int c = 0; c < corpora.length; ++c) {
+            Run("node  " + names[c], SudokuSolver.NODE_ENGINE, corpora[c], rounds / 4); // warm up
+            Run("array " + names[c], SudokuSolver.ARRAY_ENGINE, corpora[c], rounds / 4);
+            Report("node  " + names[c], Run("node  " + names[c], SudokuSolver.NODE_ENGINE, corpora[c], rounds));
+            Report("array " + names[c], Run("array " + names[c], SudokuSolver.ARRAY_ENGINE, corpora[c], rounds));
+        }
+    }
+
+    // returns { nanoseconds, nodes, bytes allocated, solves }
+    private static long[] Run(String name, int engine, int[][] puzzles, int rounds) {
+        SudokuSolver solver = new SudokuSolver(9, engine);
+        int[] sudoku = new int[81];
+        long nodes = 0;
+        long threadId = Thread.currentThread().getId();
+        long bytes = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; ++r)
+            for (int[] puzzle : puzzles) {
+                System.arraycopy(puzzle, 0, sudoku, 0, 81);
+                if (!solver.Solve(sudoku))
+                    throw new IllegalStateException(name + ": unsolvable benchmark puzzle");
+                nodes += solver.Nodes();
+            }
+        long nanos = System.nanoTime() - start;
+        bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+        return new long[] { nanos, nodes, bytes, (long) rounds * puzzles.length };
+    }
+
+    private static void Report(String name, long[] result) {
+        double seconds = result[0] / 1e9;
+        System.out.printf("%-14s %12.0f nodes/s %10.1f us/solve %10d bytes/solve%n",
+                name, result[1] / seconds, result[0] / 1e3 / result[3], result[2] / result[3]);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sudokuTools;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import com.sudokuSolver.BitmaskSolver;
+import com.sudokuSolver.DifficultyGrader;
+
+// Grades puzzles with DifficultyGrader on one thread and prints how many
+// need each technique, their mean score, and grading throughput.  Given a
+// puzzle file it grades that; otherwise it grades puzzles from Board at
+// each of its difficulty levels, which shows how little clue counts say
+// about real difficulty.  Puzzles without a unique solution are counted
+// apart and not graded.
+//     java -cp <classes> com.sudokuTools.GradeReport [puzzle file | puzzles per level]
+public class GradeReport {
+    private final BitmaskSolver _checker = new BitmaskSolver();
+    private final int[] _counts = new int[DifficultyGrader.INVALID + 1];
+    private final DifficultyGrader _grader = new DifficultyGrader();
+    private long _nanos;
+    private int _notUnique;
+    private final long[] _scores = new long[DifficultyGrader.INVALID + 1];
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            GradeReport report = new GradeReport();
+            PuzzleReader in = new PuzzleReader(Paths.get(args[0]));
+            try {
+                int[] sudoku = new int[81];
+                int result;
+                while ((result = in.Next(sudoku)) != PuzzleReader.END)
+                    if (result == PuzzleReader.PUZZLE)
+                        report.Grade(sudoku);
+            }
+            finally {
+                in.close();
+            }
+            report.Print(args[0]);
+            return;
+        }
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        String[] levels = { "easy", "medium", "hard", "random" };
+        for (int level = 1; level <= levels.length; ++level) {
+            GradeReport report = new GradeReport();
+            for (int[] sudoku : Puzzles.Generated(level, count))
+                report.Grade(sudoku);
+            report.Print("Board " + levels[level - 1]);
+        }
+    }
+
+    public void Grade(int[] sudoku) {
+        if (_checker.CountSolutions(sudoku, 2) != 1) {
+            ++_notUnique;
+            return;
+        }
+        long start = System.nanoTime();
+        int hardest = _grader.Grade(sudoku);
+        _nanos += System.nanoTime() - start;
+        ++_counts[hardest];
+        _scores[hardest] += _grader.Score();
+    }
+
+    public void Print(String title) {
+        int graded = 0;
+        for (int count : _counts)
+            graded += count;
+
+        System.out.printf("%s: %d graded, %d without a unique solution, %.0f puzzles/s%n",
+                title, graded, _notUnique, graded / (_nanos / 1e9));
+        for (int t = 0; t < _counts.length; ++t)
+            if (_counts[t] > 0)
+                System.out.printf("  %-18s %8d %6.1f%% %10.0f%n", DifficultyGrader.Name(t), _counts[t],
+                        100.0 * _counts[t] / graded, (double) _scores[t] / _counts[t]);
+    }
+}
@@ -0,0 +1,295 @@
+package com.sudokuTools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sudokuRandom.GridGenerator;
+import com.sudokuRandom.SplitMix64;
+import com.sudokuSolver.BitmaskSolver;
+import com.sudokuSolver.DifficultyGrader;
+
+// Reduces a uniquely solvable puzzle to a minimal one, where removing any
+// clue would give it a second solution, with as few clues as a time budget
+// allows.  Each descent starts from the whole puzzle and removes one clue a
+// step.  A step checks every remaining candidate's removal at once on a
+// ForkJoinPool, counting solutions up to 2 with a BitmaskSolver per worker.
+// A clue whose removal breaks uniqueness can never be removed later, since
+// fewer clues only allow more solutions, so it is dropped from the
+// candidates for the rest of the descent; the descent ends, at a minimal
+// puzzle, when none are left.  Of the clues that can go, the step removes
+// one of the few whose removal leaves the smallest search, which keeps the
+// puzzle tightly constrained and so keeps more clues removable later; the
+// choice among those few is random, so each descent explores a different
+// removal order.  Descents repeat until the budget runs out, and the
+// puzzle with the fewest clues is kept.
+//     java -cp <classes> com.sudokuTools.MinimalReducer <puzzle file | count> [seconds each] [threads] [output] [seed]
+// Given a count, it reduces that many full grids from GridGenerator, which
+// reach fewer clues than Board's puzzles do; each output line is a reduced
+// puzzle, its clue count and the hardest technique it needs.
+public class MinimalReducer {
+    private static final int PICK = 3; // a step removes one of this many removals with the smallest search
+    private static final int THRESHOLD = 2; // candidates a task checks without splitting
+
+    private final ForkJoinPool _pool;
+    private final SplitMix64 _random;
+    private final ThreadLocal<int[]> _scratch = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[81];
+        }
+    };
+    private final ThreadLocal<BitmaskSolver> _solvers = new ThreadLocal<BitmaskSolver>() {
+        @Override
+        protected BitmaskSolver initialValue() {
+            return new BitmaskSolver();
+        }
+    };
+
+    // state of the current descent; workers only read _puzzle and _live,
+    // and each writes only its own candidates' slots of _nodes and _unique
+    private int _candidates;
+    private long _checks;
+    private final int[] _live = new int[81];   // the cells of the clues that may still be removable
+    private final long[] _nodes = new long[81]; // per candidate, the search nodes its check took
+    private final int[] _puzzle = new int[81];
+    private final boolean[] _unique = new boolean[81]; // per candidate, whether it can go
+
+    public MinimalReducer(ForkJoinPool pool, long seed) {
+        _pool = pool;
+        _random = new SplitMix64(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: MinimalReducer <puzzle file | count> [seconds each] [threads] [output] [seed]");
+            System.exit(2);
+        }
+        long budget = (long) ((args.length > 1 ? Double.parseDouble(args[1]) : 1.0) * 1e9);
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        ArrayList<int[]> puzzles = new ArrayList<int[]>();
+        if (!args[0].matches("\\d+")) {
+            PuzzleReader in = new PuzzleReader(Paths.get(args[0]));
+            try {
+                int[] sudoku = new int[81];
+                int result;
+                while ((result = in.Next(sudoku)) != PuzzleReader.END)
+                    if (result == PuzzleReader.PUZZLE)
+                        puzzles.add(sudoku.clone());
+            }
+            finally {
+                in.close();
+            }
+        }
+        else {
+            GridGenerator generator = new GridGenerator(new SplitMix64(seed));
+            for (int i = Integer.parseInt(args[0]); i > 0; --i) {
+                int[] grid = new int[81];
+                generator.generate(grid);
+                puzzles.add(grid);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        MinimalReducer reducer = new MinimalReducer(pool, ~seed);
+        BitmaskSolver checker = new BitmaskSolver();
+        DifficultyGrader grader = new DifficultyGrader();
+        PuzzleWriter out = args.length > 3 ? new PuzzleWriter(Paths.get(args[3])) : null;
+        int[] histogram = new int[82];
+        long checks = 0, descents = 0, nanos = 0;
+        int notUnique = 0, notMinimal = 0;
+        try {
+            for (int[] sudoku : puzzles) {
+                if (checker.CountSolutions(sudoku, 2) != 1) {
+                    ++notUnique;
+                    continue;
+                }
+                Result result = reducer.Reduce(sudoku, budget);
+                ++histogram[result._clues];
+                checks += result._checks;
+                descents += result._descents;
+                nanos += result._nanos;
+                if (!result._minimal)
+                    ++notMinimal;
+                if (out != null) {
+                    out.Put(result._sudoku, 81);
+                    out.Put(("\t" + result._clues + "\t" + DifficultyGrader.Name(grader.Grade(result._sudoku)))
+                            .getBytes(StandardCharsets.US_ASCII));
+                    out.EndLine();
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+            if (out != null)
+                out.close();
+        }
+
+        int reduced = puzzles.size() - notUnique;
+        System.err.printf("%d puzzles reduced in %.3f s on %d threads, %d without a unique solution,"
+                + " %d not minimal when the budget ran out%n", reduced, nanos / 1e9, threads, notUnique, notMinimal);
+        System.err.printf("%.1f descents and %.0f checks a puzzle, %.0f checks/s%n",
+                (double) descents / Math.max(reduced, 1), (double) checks / Math.max(reduced, 1),
+                checks / (nanos / 1e9));
+        for (int clues = 0; clues <= 81; ++clues)
+            if (histogram[clues] > 0)
+                System.err.printf("  %2d clues %8d%n", clues, histogram[clues]);
+    }
+
+    /**
+     * Searches removal orders for a minimal puzzle with few clues until
+     * budget runs out.  A reducer runs one reduction at a time.
+     *
+     * @param sudoku 81 integers, 0 marking blank cells, with exactly one
+     *               solution; left unchanged
+     * @param budgetNanos how long to search; the step under way when it
+     *                    runs out is finished first
+     * @return the puzzle with the fewest clues found; it is minimal unless
+     *         the budget ran out during the first descent
+     */
+    public Result Reduce(int[] sudoku, long budgetNanos) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        Result best = null;
+        _checks = 0;
+        int descents = 0;
+
+        do {
+            boolean minimal = Descend(sudoku, deadline);
+            ++descents;
+            int clues = 0;
+            for (int value : _puzzle)
+                if (value != 0)
+                    ++clues;
+            if (best == null || (minimal && !best._minimal) || (minimal == best._minimal && clues < best._clues))
+                best = new Result(_puzzle.clone(), clues, minimal);
+        } while (System.nanoTime() < deadline);
+
+        best._checks = _checks;
+        best._descents = descents;
+        best._nanos = System.nanoTime() - start;
+        return best;
+    }
+
+    // removes clues from a copy of sudoku in _puzzle until none can go or
+    // the deadline passes; returns true if it got to a minimal puzzle
+    private boolean Descend(int[] sudoku, long deadline) {
+        System.arraycopy(sudoku, 0, _puzzle, 0, 81);
+        _candidates = 0;
+        for (int i = 0; i < 81; ++i)
+            if (_puzzle[i] != 0)
+                _live[_candidates++] = i;
+
+        while (_candidates > 0) {
+            if (System.nanoTime() >= deadline)
+                return false;
+            _pool.invoke(new Check(0, _candidates));
+            _checks += _candidates;
+
+            // keep only the removable candidates, noting the PICK cheapest
+            int[] cheapest = new int[PICK];
+            int picked = 0, kept = 0;
+            for (int c = 0; c < _candidates; ++c) {
+                if (!_unique[c])
+                    continue;
+                long nodes = _nodes[c];
+                int slot = picked < PICK ? picked++ : PICK;
+                while (slot > 0 && _nodes[cheapest[slot - 1]] > nodes) {
+                    if (slot < PICK)
+                        cheapest[slot] = cheapest[slot - 1];
+                    --slot;
+                }
+                if (slot < PICK)
+                    cheapest[slot] = kept;
+                _live[kept] = _live[c];
+                _nodes[kept++] = nodes;
+            }
+            if (kept == 0)
+                break;
+
+            // remove one of them; the rest stay candidates
+            int choice = cheapest[_random.nextInt(picked)];
+            _puzzle[_live[choice]] = 0;
+            _live[choice] = _live[--kept];
+            _candidates = kept;
+        }
+        return true;
+    }
+
+    // checks candidates lo to hi - 1, splitting the range among workers
+    private class Check extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int _hi;
+        private final int _lo;
+
+        Check(int lo, int hi) {
+            _lo = lo;
+            _hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (_hi - _lo > THRESHOLD) {
+                int mid = (_lo + _hi) >>> 1;
+                invokeAll(new Check(_lo, mid), new Check(mid, _hi));
+                return;
+            }
+
+            BitmaskSolver solver = _solvers.get();
+            int[] scratch = _scratch.get();
+            for (int c = _lo; c < _hi; ++c) {
+                System.arraycopy(_puzzle, 0, scratch, 0, 81);
+                scratch[_live[c]] = 0;
+                _unique[c] = solver.CountSolutions(scratch, 2) == 1;
+                _nodes[c] = solver.Nodes();
+            }
+        }
+    }
+
+    public static class Result {
+        long _checks;
+        final int _clues;
+        int _descents;
+        final boolean _minimal;
+        long _nanos;
+        final int[] _sudoku;
+
+        Result(int[] sudoku, int clues, boolean minimal) {
+            _clues = clues;
+            _minimal = minimal;
+            _sudoku = sudoku;
+        }
+
+        // removals checked, over all descents
+        public long Checks() {
+            return _checks;
+        }
+
+        public int Clues() {
+            return _clues;
+        }
+
+        public int Descents() {
+            return _descents;
+        }
+
+        public boolean Minimal() {
+            return _minimal;
+        }
+
+        public long Nanos() {
+            return _nanos;
+        }
+
+        public int[] Sudoku() {
+            return _sudoku;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.sudokuTools;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sudokuSolver.ArrayDLX;
+import com.sudokuSolver.DLXArrayMatrix;
+import com.sudokuSolver.SudokuSolver;
+
+// Runs the array engine's search on many cores.  The top levels of the
+// search tree are split into independent subproblems, one per row of the
+// shortest column (forced moves are followed, not split), and handed to a
+// ForkJoinPool, whose work stealing keeps every worker busy however lopsided
+// the tree is.  A subproblem is just its list of chosen rows: each worker
+// owns a private copy of the solver's template and replays those rows on
+// it, so workers share no matrix state.  Solutions and nodes are tallied in
+// LongAdders, which do not contend, and a shared flag stops every worker
+// once enough solutions are known.
+//     java -cp <classes> com.sudokuTools.ParallelDLX <puzzle> [limit]
+public class ParallelDLX {
+    private static final long SLICE = 4096; // nodes between checks of the stop flag
+
+    private final int _cells;
+    private final int _dimension;
+    private final ForkJoinPool _pool;
+    private final int _splitDepth;
+    private final ThreadLocal<ArrayDLX> _workers;
+
+    // state of the current search
+    private long _limit;
+    private final LongAdder _nodes = new LongAdder();
+    private final AtomicReference<int[]> _solution = new AtomicReference<int[]>();
+    private final LongAdder _solutions = new LongAdder();
+    private final AtomicBoolean _stop = new AtomicBoolean();
+
+    /**
+     * @param solver supplies the template; its dimension is the one solved
+     * @param pool the pool the search runs on
+     * @param splitDepth number of branching levels split into subproblems;
+     *                   3 or 4 gives a few hundred tasks on a 9x9 grid
+     */
+    public ParallelDLX(SudokuSolver solver, ForkJoinPool pool, int splitDepth) {
+        final DLXArrayMatrix template = solver.Template();
+        _dimension = solver.Dimension();
+        _cells = _dimension * _dimension;
+        _pool = pool;
+        _splitDepth = splitDepth;
+        _workers = new ThreadLocal<ArrayDLX>() {
+            @Override
+            protected ArrayDLX initialValue() {
+                return new ArrayDLX(new DLXArrayMatrix(template));
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        int[] sudoku = Puzzles.Parse(args[0]);
+        long limit = args.length > 1 ? Long.parseLong(args[1]) : Long.MAX_VALUE;
+        ParallelDLX dlx = new ParallelDLX(new SudokuSolver(), ForkJoinPool.commonPool(), 4);
+
+        long start = System.nanoTime();
+        long count = dlx.CountSolutions(sudoku, limit);
+        System.out.printf("%d solutions, %d nodes, %.1f ms on %d workers%n", count, dlx.Nodes(),
+                (System.nanoTime() - start) / 1e6, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    // search nodes visited by the last search, summed over all workers
+    public long Nodes() {
+        return _nodes.sum();
+    }
+
+    /**
+     * Counts solutions, stopping once limit of them are found.  A few more
+     * than limit may be counted by workers racing to the finish, so the
+     * result is capped at limit.
+     */
+    public long CountSolutions(int[] sudoku, long limit) {
+        Run(sudoku, limit);
+        return Math.min(_solutions.sum(), limit);
+    }
+
+    // solves sudoku in place; the first solution any worker finds wins
+    public boolean Solve(int[] sudoku) {
+        Run(sudoku, 1);
+        int[] solution = _solution.get();
+        if (solution == null)
+            return false;
+
+        System.arraycopy(solution, 0, sudoku, 0, _cells);
+        return true;
+    }
+
+    private void Run(int[] sudoku, long limit) {
+        _limit = limit;
+        _nodes.reset();
+        _solution.set(null);
+        _solutions.reset();
+        _stop.set(false);
+
+        int[] givens = new int[_cells];
+        int givenCount = 0;
+        for (int i = 0; i < _cells; ++i)
+            if (sudoku[i] > 0 && sudoku[i] <= _dimension)
+                givens[givenCount++] = i * _dimension + sudoku[i] - 1;
+
+        _pool.invoke(new Subproblem(givens, givenCount, 0));
+    }
+
+    private void Found(ArrayDLX dlx) {
+        _solutions.increment();
+        if (_solution.get() == null) {
+            int[] solution = new int[_cells];
+            for (int i = 0; i < dlx.SolutionSize(); ++i) {
+                int row = dlx.SolutionRow(i);
+                solution[row / _dimension] = row % _dimension + 1;
+            }
+            _solution.compareAndSet(null, solution);
+        }
+        if (_solutions.sum() >= _limit)
+            _stop.set(true);
+    }
+
+    // the subtree under a list of chosen rows
+    private class Subproblem extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] _rows;
+        private int _rowCount;
+        private final int _depth; // branching levels already split above this one
+
+        Subproblem(int[] rows, int rowCount, int depth) {
+            _rows = rows;
+            _rowCount = rowCount;
+            _depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (_stop.get())
+                return;
+
+            ArrayDLX dlx = _workers.get();
+            for (int i = 0; i < _rowCount; ++i)
+                if (!dlx.AddRowToSolution(_rows[i])) { // only givens can clash
+                    dlx.Restore();
+                    return;
+                }
+
+            if (_depth < _splitDepth)
+                Split(dlx);
+            else
+                Search(dlx);
+        }
+
+        // follows forced moves until the tree branches, then forks a
+        // subproblem for each branch
+        private void Split(ArrayDLX dlx) {
+            DLXArrayMatrix matrix = dlx.Matrix();
+            while (true) {
+                if (matrix.right[DLXArrayMatrix.ROOT] == DLXArrayMatrix.ROOT) {
+                    Found(dlx); // every column covered
+                    dlx.Restore();
+                    return;
+                }
+
+                int col = ShortestColumn(matrix);
+                if (matrix.size[col] == 0) {
+                    dlx.Restore(); // dead end
+                    return;
+                }
+                if (matrix.size[col] > 1)
+                    break;
+
+                int row = matrix.row[matrix.down[col]]; // forced
+                dlx.AddRowToSolution(row);
+                _rows[_rowCount++] = row;
+            }
+
+            int col = ShortestColumn(matrix);
+            ArrayList<Subproblem> branches = new ArrayList<Subproblem>(matrix.size[col]);
+            for (int node = matrix.down[col]; node != col; node = matrix.down[node]) {
+                int[] rows = new int[_cells];
+                System.arraycopy(_rows, 0, rows, 0, _rowCount);
+                rows[_rowCount] = matrix.row[node];
+                branches.add(new Subproblem(rows, _rowCount + 1, _depth + 1));
+            }
+            dlx.Restore(); // the worker's matrix must be clean before it runs anything else
+            invokeAll(branches);
+        }
+
+        // searches the rest of the subtree on this worker, checking between
+        // slices whether another worker has already found enough
+        private void Search(ArrayDLX dlx) {
+            dlx.Begin(1); // report every solution as it is found
+            while (!_stop.get()) {
+                int result = dlx.Resume(SLICE);
+                if (result == ArrayDLX.FOUND)
+                    Found(dlx);
+                else if (result == ArrayDLX.EXHAUSTED)
+                    break;
+            }
+            _nodes.add(dlx.Nodes());
+            dlx.Restore();
+        }
+    }
+
+    private static int ShortestColumn(DLXArrayMatrix matrix) {
+        int shortest = matrix.right[DLXArrayMatrix.ROOT];
+        for (int col = shortest; col != DLXArrayMatrix.ROOT; col = matrix.right[col])
+            if (matrix.size[col] < matrix.size[shortest])
+                shortest = col;
+        return shortest;
+    }
+}
@@ -0,0 +1,317 @@
+package com.sudokuTools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sudokuRandom.Board;
+import com.sudokuRandom.SplitMix64;
+import com.sudokuSolver.DifficultyGrader;
+
+// Generates puzzles of a requested difficulty band on a ForkJoinPool.  Each
+// worker owns a SplitMix64 split from one root, a DifficultyGrader and its
+// own scratch space, so workers share nothing but the queue: a worker
+// draws a seed, builds the seeded Board, grades it, and keeps it only if
+// the hardest technique it needs is in the band.  Kept puzzles go through
+// a bounded queue to the caller's Sink, so a slow sink makes the workers
+// wait instead of piling up puzzles.  Every puzzle is reported with its
+// seed, from which Board(level, seed) rebuilds it.  A summary per band
+// with acceptance rate and throughput goes to standard error.
+//     java -cp <classes> com.sudokuTools.PuzzleFarm <count> [bands] [workers] [output] [seed]
+// bands is a comma-separated list of band names, all bands by default;
+// each output line is a puzzle, its band, its hardest technique and its seed.
+public class PuzzleFarm implements Closeable {
+    // bands by the hardest technique a puzzle needs, and the Board level
+    // whose candidates land in each band most often
+    public static final Band[] BANDS = {
+        new Band("easy", 1, DifficultyGrader.HIDDEN_SINGLE, DifficultyGrader.HIDDEN_SINGLE),
+        new Band("medium", 3, DifficultyGrader.NAKED_SINGLE, DifficultyGrader.LOCKED_CANDIDATES),
+        new Band("hard", 3, DifficultyGrader.NAKED_PAIR, DifficultyGrader.SIMPLE_COLOURING),
+        new Band("expert", 3, DifficultyGrader.GUESSING, DifficultyGrader.GUESSING)
+    };
+
+    private static final int QUEUE_PER_WORKER = 4;
+    private static final long POLL_MILLIS = 50; // how often a waiting thread checks whether to give up
+
+    private final ForkJoinPool _pool;
+    private final SplitMix64 _random; // splits off each worker's generator
+    private final int _workers;
+
+    public PuzzleFarm(int workers, long seed) {
+        _pool = new ForkJoinPool(workers);
+        _random = new SplitMix64(seed);
+        _workers = workers;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("usage: PuzzleFarm <count> [bands] [workers] [output] [seed]");
+            System.exit(2);
+        }
+        int count = Integer.parseInt(args[0]);
+        ArrayList<Band> bands = new ArrayList<Band>();
+        if (args.length > 1)
+            for (String name : args[1].split(","))
+                bands.add(Find(name));
+        else
+            for (Band band : BANDS)
+                bands.add(band);
+        int workers = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        final PuzzleWriter out = args.length > 3 ? new PuzzleWriter(Paths.get(args[3])) : null;
+        PuzzleFarm farm = new PuzzleFarm(workers, seed);
+        try {
+            for (final Band band : bands) {
+                final byte[] tag = ("\t" + band._name + "\t").getBytes(StandardCharsets.US_ASCII);
+                Stats stats = farm.Produce(band, count, new Sink() {
+                    public void Accept(Puzzle puzzle) throws IOException {
+                        if (out == null)
+                            return;
+                        out.Put(puzzle._sudoku, 81);
+                        out.Put(tag);
+                        out.Put((DifficultyGrader.Name(puzzle._hardest) + "\t" + puzzle._seed)
+                                .getBytes(StandardCharsets.US_ASCII));
+                        out.EndLine();
+                    }
+                });
+                stats.Print();
+            }
+        }
+        finally {
+            farm.close();
+            if (out != null)
+                out.close();
+        }
+    }
+
+    public static Band Find(String name) {
+        for (Band band : BANDS)
+            if (band._name.equals(name))
+                return band;
+        throw new IllegalArgumentException("no band named " + name);
+    }
+
+    /**
+     * Generates puzzles until count of them fall in band, handing each to
+     * sink on the calling thread as it arrives.
+     *
+     * @return the run's tallies; if sink throws, the workers are stopped
+     *         and the exception passed on
+     */
+    public Stats Produce(Band band, int count, Sink sink) throws IOException, InterruptedException {
+        Run run = new Run(band, count, QUEUE_PER_WORKER * _workers);
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+        for (int i = 0; i < _workers; ++i)
+            tasks.add(_pool.submit(run.Worker(_random.split())));
+
+        try {
+            for (int delivered = 0; delivered < count; ) {
+                Puzzle puzzle = run._queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (puzzle != null) {
+                    sink.Accept(puzzle);
+                    ++delivered;
+                }
+                else
+                    for (ForkJoinTask<?> task : tasks)
+                        if (task.isCompletedAbnormally())
+                            throw new IllegalStateException(task.getException());
+            }
+        }
+        finally {
+            run._stop = true;
+            for (ForkJoinTask<?> task : tasks)
+                Await(task);
+        }
+        run._stats._nanos = System.nanoTime() - run._start;
+        return run._stats;
+    }
+
+    public void close() {
+        _pool.shutdown();
+    }
+
+    private static void Await(ForkJoinTask<?> task) throws InterruptedException {
+        try {
+            task.get();
+        }
+        catch (ExecutionException e) {
+            // Produce has already reported it, or is leaving with an error of its own
+        }
+    }
+
+    public interface Sink {
+        void Accept(Puzzle puzzle) throws IOException;
+    }
+
+    public static class Band {
+        final int _easiest; // the easiest hardest technique the band takes
+        final int _hardest;
+        final int _level;   // the Board difficulty candidates are drawn at
+        final String _name;
+
+        public Band(String name, int level, int easiest, int hardest) {
+            _easiest = easiest;
+            _hardest = hardest;
+            _level = level;
+            _name = name;
+        }
+
+        public boolean Contains(int technique) {
+            return technique >= _easiest && technique <= _hardest;
+        }
+
+        public String Name() {
+            return _name;
+        }
+    }
+
+    // an accepted puzzle; Board(band level, _seed) rebuilds it
+    public static class Puzzle {
+        final int _hardest;
+        final int _score;
+        final long _seed;
+        final int[] _sudoku;
+
+        Puzzle(long seed, int[] sudoku, int hardest, int score) {
+            _hardest = hardest;
+            _score = score;
+            _seed = seed;
+            _sudoku = sudoku;
+        }
+
+        public int Hardest() {
+            return _hardest;
+        }
+
+        public int Score() {
+            return _score;
+        }
+
+        public long Seed() {
+            return _seed;
+        }
+
+        public int[] Sudoku() {
+            return _sudoku;
+        }
+    }
+
+    // a band's tallies; workers count into the atomics as they go
+    public static class Stats {
+        final AtomicInteger _accepted = new AtomicInteger();
+        final Band _band;
+        final AtomicLong _blockedNanos = new AtomicLong(); // workers' time waiting on a full queue
+        final AtomicLong _candidates = new AtomicLong();
+        volatile long _nanos;
+        final AtomicLong[] _techniques = new AtomicLong[DifficultyGrader.INVALID + 1];
+
+        Stats(Band band) {
+            _band = band;
+            for (int t = 0; t < _techniques.length; ++t)
+                _techniques[t] = new AtomicLong();
+        }
+
+        public int Accepted() {
+            return _accepted.get();
+        }
+
+        public long Candidates() {
+            return _candidates.get();
+        }
+
+        public long Nanos() {
+            return _nanos;
+        }
+
+        public void Print() {
+            long candidates = _candidates.get();
+            double seconds = _nanos / 1e9;
+            System.err.printf("%s: %d accepted of %d candidates (%.1f%%) in %.3f s, %.0f puzzles/s,"
+                    + " %.0f candidates/s, workers blocked %.3f s%n", _band._name, _accepted.get(),
+                    candidates, 100.0 * _accepted.get() / Math.max(candidates, 1), seconds,
+                    _accepted.get() / seconds, candidates / seconds, _blockedNanos.get() / 1e9);
+            for (int t = 0; t < _techniques.length; ++t)
+                if (_techniques[t].get() > 0)
+                    System.err.printf("  %-18s %8d %6.1f%%%s%n", DifficultyGrader.Name(t), _techniques[t].get(),
+                            100.0 * _techniques[t].get() / candidates, _band.Contains(t) ? "  in band" : "");
+        }
+    }
+
+    // one call of Produce: the queue, the stop flag and the tallies its
+    // workers share
+    private static class Run {
+        final Band _band;
+        final AtomicInteger _claimed = new AtomicInteger(); // accepted puzzles workers have taken a place for
+        final int _count;
+        final BlockingQueue<Puzzle> _queue;
+        final long _start = System.nanoTime();
+        final Stats _stats;
+        volatile boolean _stop;
+
+        Run(Band band, int count, int capacity) {
+            _band = band;
+            _count = count;
+            _queue = new ArrayBlockingQueue<Puzzle>(Math.max(1, Math.min(count, capacity)));
+            _stats = new Stats(band);
+        }
+
+        Runnable Worker(final SplitMix64 random) {
+            return new Runnable() {
+                public void run() {
+                    Generate(random);
+                }
+            };
+        }
+
+        private void Generate(SplitMix64 random) {
+            DifficultyGrader grader = new DifficultyGrader();
+            int[] sudoku = new int[81];
+            while (!_stop) {
+                long seed = random.nextLong();
+                new Board(_band._level, seed).getBoard(sudoku);
+                int hardest = grader.Grade(sudoku);
+                _stats._candidates.incrementAndGet();
+                _stats._techniques[hardest].incrementAndGet();
+                if (!_band.Contains(hardest))
+                    continue;
+                if (_claimed.getAndIncrement() >= _count)
+                    return; // the other workers have found the rest
+
+                _stats._accepted.incrementAndGet();
+                if (!Offer(new Puzzle(seed, sudoku.clone(), hardest, grader.Score())))
+                    return;
+            }
+        }
+
+        // waits for room in the queue, so a slow sink holds the workers
+        // back; returns false if the run stopped first
+        private boolean Offer(Puzzle puzzle) {
+            long start = System.nanoTime();
+            try {
+                while (!_queue.offer(puzzle, POLL_MILLIS, TimeUnit.MILLISECONDS))
+                    if (_stop)
+                        return false;
+                return true;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            finally {
+                _stats._blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sudokuTools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a puzzle corpus, one 81-character puzzle per line with '0' or '.'
+// for blanks, by memory-mapping the file and parsing digits straight out
+// of the mapping into the caller's int[81].  No String, char[] or line
+// buffer is ever made, so reading allocates nothing per puzzle.  Files
+// larger than one mapping are mapped a window at a time; a window always
+// starts at a line boundary.
+public class PuzzleReader implements Closeable {
+    public static final int PUZZLE = 0;  // sudoku holds the next puzzle
+    public static final int INVALID = 1; // the line was not a puzzle; sudoku is undefined
+    public static final int END = 2;     // no lines left
+
+    private static final long WINDOW = 1L << 28; // bytes mapped at a time
+
+    private final FileChannel _channel;
+    private MappedByteBuffer _buffer;
+    private long _bufferStart = 0; // file offset of _buffer's first byte
+    private final long _length;
+    private long _line = 0;
+
+    public PuzzleReader(Path path) throws IOException {
+        _channel = FileChannel.open(path, StandardOpenOption.READ);
+        _length = _channel.size();
+        Map(0);
+    }
+
+    // number of lines read so far
+    public long Lines() {
+        return _line;
+    }
+
+    /**
+     * Parses the next line into sudoku.  Trailing whitespace (including the
+     * '\r' of CRLF files) is ignored; any other line that is not exactly 81
+     * puzzle characters is INVALID.
+     */
+    public int Next(int[] sudoku) throws IOException {
+        while (true) {
+            long lineStart = _bufferStart + _buffer.position();
+            if (lineStart >= _length)
+                return END;
+            if (!_buffer.hasRemaining())
+                Map(lineStart);
+
+            int result = Parse(sudoku);
+            if (result >= 0) {
+                ++_line;
+                return result;
+            }
+
+            // the line runs past the window: map again from its start,
+            // unless it already began the window and is just too long
+            if (lineStart == _bufferStart) {
+                Map(_bufferStart + _buffer.limit());
+                SkipLine();
+                ++_line;
+                return INVALID;
+            }
+            Map(lineStart);
+        }
+    }
+
+    public void close() throws IOException {
+        _channel.close();
+    }
+
+    // parses one line; returns -1 if the window ends before the line does
+    private int Parse(int[] sudoku) {
+        MappedByteBuffer buffer = _buffer;
+        int cells = 0, trailing = 0;
+        boolean valid = true;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n')
+                return (valid && cells == 81) ? PUZZLE : INVALID;
+            if (b == ' ' || b == '\t' || b == '\r') {
+                ++trailing;
+                continue;
+            }
+            if (trailing > 0 || cells == 81 || !(b == '.' || (b >= '0' && b <= '9'))) {
+                valid = false; // keep scanning to the end of the line
+                continue;
+            }
+            sudoku[cells++] = (b >= '1' && b <= '9') ? b - '0' : 0;
+        }
+
+        if (_bufferStart + buffer.limit() < _length)
+            return -1;
+        return (valid && cells == 81) ? PUZZLE : INVALID; // last line has no newline
+    }
+
+    // skips to just past the next newline, mapping further windows as needed
+    private void SkipLine() throws IOException {
+        while (_bufferStart + _buffer.position() < _length) {
+            if (!_buffer.hasRemaining())
+                Map(_bufferStart + _buffer.limit());
+            if (_buffer.get() == '\n')
+                return;
+        }
+    }
+
+    private void Map(long start) throws IOException {
+        _bufferStart = start;
+        _buffer = _channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, _length - start));
+    }
+}
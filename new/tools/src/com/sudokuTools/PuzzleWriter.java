@@ -0,0 +1,124 @@
+package com.sudokuTools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Writes puzzles and solutions, one per line, through a small pool of
+// large direct buffers.  The caller fills one buffer while a background
+// thread drains full ones into the FileChannel, so output overlaps with
+// solving and nothing is allocated per puzzle.  Only one thread may write
+// to a PuzzleWriter; the flushing thread is internal.
+public class PuzzleWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 22;
+    private static final int BUFFERS = 4;
+    private static final ByteBuffer END = ByteBuffer.allocate(0); // tells the flusher to stop
+
+    private ByteBuffer _buffer;
+    private final FileChannel _channel;
+    private volatile IOException _failure; // the flusher's first error, if any
+    private final BlockingQueue<ByteBuffer> _free = new ArrayBlockingQueue<ByteBuffer>(BUFFERS);
+    private final Thread _flusher;
+    private final BlockingQueue<ByteBuffer> _full = new ArrayBlockingQueue<ByteBuffer>(BUFFERS + 1);
+
+    public PuzzleWriter(Path path) throws IOException {
+        _channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        for (int i = 0; i < BUFFERS; ++i)
+            _free.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        _buffer = _free.poll();
+
+        _flusher = new Thread(new Runnable() {
+            public void run() {
+                Flush();
+            }
+        }, "PuzzleWriter");
+        _flusher.setDaemon(true);
+        _flusher.start();
+    }
+
+    // writes the first cells entries of sudoku as digits, '.' for blanks
+    public void Put(int[] sudoku, int cells) throws IOException {
+        Reserve(cells);
+        for (int i = 0; i < cells; ++i)
+            _buffer.put(sudoku[i] == 0 ? (byte) '.' : (byte) ('0' + sudoku[i]));
+    }
+
+    // writes bytes as they are, for tags such as a tab and "multiple"
+    public void Put(byte[] text) throws IOException {
+        Reserve(text.length);
+        _buffer.put(text);
+    }
+
+    public void EndLine() throws IOException {
+        Reserve(1);
+        _buffer.put((byte) '\n');
+    }
+
+    public void close() throws IOException {
+        try {
+            Hand(_buffer);
+            Hand(END);
+            _flusher.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            _channel.close();
+        }
+        if (_failure != null)
+            throw _failure;
+    }
+
+    // makes sure the current buffer has room for count more bytes
+    private void Reserve(int count) throws IOException {
+        if (_buffer.remaining() >= count)
+            return;
+        if (_failure != null)
+            throw _failure;
+
+        try {
+            Hand(_buffer);
+            _buffer = _free.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for a free buffer");
+        }
+    }
+
+    private void Hand(ByteBuffer buffer) throws InterruptedException {
+        buffer.flip();
+        _full.put(buffer);
+    }
+
+    // the flusher thread's loop
+    private void Flush() {
+        try {
+            while (true) {
+                ByteBuffer buffer = _full.take();
+                if (buffer == END)
+                    return;
+                try {
+                    while (buffer.hasRemaining())
+                        _channel.write(buffer);
+                }
+                catch (IOException e) {
+                    if (_failure == null)
+                        _failure = e;
+                }
+                buffer.clear();
+                _free.put(buffer);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sudokuTools;
+
+import com.sudokuRandom.Board;
+
+// Fixed puzzles and puzzle helpers shared by the off-device tools.
+// Puzzle strings are 81 characters, row by row, with '0' or '.' for blanks.
+public class Puzzles {
+    // well-known puzzles that are hard for DLX and human solvers alike
+    public static final String[] HARD = {
+        "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..", // AI Escargot
+        "1.......2.9.4...5...6...7...5.9.3.......7.......85..4.7.....6...3...9.8...2.....1", // Easter Monster
+        "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..", // Inkala 2012
+        "..............3.85..1.2.......5.7.....4...1...9.......5......73..2.1........4...9"  // worst case for naive backtracking
+    };
+
+    // a 17-clue puzzle, the fewest clues a uniquely solvable sudoku can have
+    public static final String SEVENTEEN_CLUE =
+        "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    private Puzzles() { }
+
+    // parses an 81-character puzzle string
+    public static int[] Parse(String puzzle) {
+        int[] sudoku = new int[81];
+        for (int i = 0; i < 81; ++i) {
+            char c = puzzle.charAt(i);
+            sudoku[i] = (c >= '1' && c <= '9') ? c - '0' : 0;
+        }
+        return sudoku;
+    }
+
+    public static String Format(int[] sudoku) {
+        char[] chars = new char[81];
+        for (int i = 0; i < 81; ++i)
+            chars[i] = sudoku[i] == 0 ? '.' : (char) ('0' + sudoku[i]);
+        return new String(chars);
+    }
+
+    public static int[][] Hard() {
+        int[][] puzzles = new int[HARD.length][];
+        for (int i = 0; i < HARD.length; ++i)
+            puzzles[i] = Parse(HARD[i]);
+        return puzzles;
+    }
+
+    // count puzzles produced by Board at the given difficulty (1 easy, 2 medium, 3 hard)
+    public static int[][] Generated(int difficulty, int count) {
+        int[][] puzzles = new int[count][81];
+        for (int i = 0; i < count; ++i)
+            new Board(difficulty).getBoard(puzzles[i]);
+        return puzzles;
+    }
+}
@@ -0,0 +1,98 @@
+package com.sudokuTools;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import com.sudokuSolver.SudokuSolver;
+
+// Measures SudokuSolver on grids from 6x6 up to 36x36: the memory the
+// array engine's template retains, the bytes a node engine solve allocates,
+// and the time to build the template and to solve puzzles made by blanking
+// a fraction of the cells of a full grid.  Use it to size heaps before
+// serving large grids.  Large grids get much harder to search as the blank
+// fraction rises towards one half, so compare like with like:
+//     java -Xmx512m -cp <classes> com.sudokuTools.ScalingReport [puzzles] [blank percent]
+public class ScalingReport {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long NODE_BUDGET = 5000000; // per solve; a grid over budget is reported, not waited on
+
+    // { boxRows, boxColumns }
+    private static final int[][] SHAPES = { {3, 3}, {2, 3}, {3, 4}, {4, 4}, {5, 5}, {6, 6} };
+
+    public static void main(String[] args) {
+        int puzzles = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int blankPercent = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        Random random = new Random(1);
+
+        System.out.printf("%-7s %8s %8s %12s %12s %10s %12s %12s %6s%n", "grid", "rows", "columns",
+                "template KB", "node KB/solve", "build ms", "array us", "node us", "over");
+        for (int[] shape : SHAPES)
+            Report(shape[0], shape[1], puzzles, blankPercent, random);
+    }
+
+    private static void Report(int boxRows, int boxColumns, int puzzles, int blankPercent, Random random) {
+        int dimension = boxRows * boxColumns;
+        int cells = dimension * dimension;
+        long rows = (long) cells * dimension;
+
+        // the first solve builds the array engine's template
+        long before = UsedMemory();
+        long start = System.nanoTime();
+        SudokuSolver array = new SudokuSolver(boxRows, boxColumns, SudokuSolver.ARRAY_ENGINE);
+        int[] grid = new int[cells];
+        if (Solve(array, grid) != SudokuSolver.SOLVED) {
+            System.out.printf("%2dx%-4d no solution of the empty grid within %d nodes%n",
+                    dimension, dimension, NODE_BUDGET);
+            return;
+        }
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+        long templateBytes = UsedMemory() - before;
+
+        SudokuSolver node = new SudokuSolver(boxRows, boxColumns, SudokuSolver.NODE_ENGINE);
+        long arrayNanos = 0, nodeNanos = 0, nodeBytes = 0;
+        int solved = 0, overBudget = 0;
+        int[] puzzle = new int[cells], sudoku = new int[cells];
+        for (int p = 0; p < puzzles; ++p) {
+            for (int i = 0; i < cells; ++i)
+                puzzle[i] = random.nextInt(100) < blankPercent ? 0 : grid[i];
+
+            System.arraycopy(puzzle, 0, sudoku, 0, cells);
+            start = System.nanoTime();
+            if (Solve(array, sudoku) != SudokuSolver.SOLVED) {
+                ++overBudget; // leave it out of both averages
+                continue;
+            }
+            arrayNanos += System.nanoTime() - start;
+
+            System.arraycopy(puzzle, 0, sudoku, 0, cells);
+            long allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            start = System.nanoTime();
+            node.Solve(sudoku);
+            nodeNanos += System.nanoTime() - start;
+            nodeBytes += THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+            ++solved;
+        }
+
+        solved = Math.max(solved, 1);
+        System.out.printf("%2dx%-4d %8d %8d %12d %12d %10.1f %12.1f %12.1f %6d%n", dimension, dimension,
+                rows, cells * 4, templateBytes / 1024, nodeBytes / solved / 1024, buildMillis,
+                arrayNanos / 1e3 / solved, nodeNanos / 1e3 / solved, overBudget);
+    }
+
+    private static int Solve(SudokuSolver solver, int[] sudoku) {
+        if (!solver.Start(sudoku))
+            return SudokuSolver.UNSOLVABLE;
+        int result = solver.Resume(NODE_BUDGET);
+        if (result == SudokuSolver.PAUSED)
+            solver.Abandon();
+        return result;
+    }
+
+    private static long UsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,225 @@
+package com.sudokuTools;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.sudokuSolver.ArrayDLX;
+import com.sudokuSolver.DLXArrayMatrix;
+import com.sudokuSolver.SudokuSolver;
+
+// Streams every solution of a puzzle, in parallel if asked, without ever
+// holding more than one solution per worker.  SudokuSolver.Solutions is the
+// sequential form; this is the Java 8 one, kept out of the core packages,
+// which must still build for old Android releases.
+//
+// A spliterator owns a subtree of the array engine's search: the rows chosen
+// so far (givens, forced moves and branches taken) plus a range of the rows
+// of the shortest column still uncovered under them.  Splitting halves that
+// range; a range of one row is descended into, following forced moves, until
+// the tree branches again.  Each spliterator searches its range on a private
+// copy of the template, so spliterators share nothing but the read-only
+// pristine template.  Splitting is only possible before traversal starts,
+// which is all the stream framework asks of it.
+//     java -cp <classes> com.sudokuTools.SolutionSpliterator <puzzle> [parallel]
+public class SolutionSpliterator implements Spliterator<int[]> {
+    private final int _dimension;
+    private final DLXArrayMatrix _template; // never covered; copied per spliterator
+
+    // the subtree: _rows[0.._rowCount) are in the solution, then each row of
+    // _choices[_lo.._hi) in turn, once Expand has found the branch point
+    private int[] _rows;
+    private int _rowCount;
+    private int[] _choices;
+    private int _lo;
+    private int _hi;
+    private boolean _complete = false; // _rows alone are a solution
+    private boolean _dead = false;     // the subtree holds nothing more
+
+    private ArrayDLX _dlx;             // created on first use
+    private long _estimate;
+    private boolean _searching = false; // the search under _choices[_lo] is paused in _dlx
+    private boolean _started = false;
+
+    /**
+     * @param solver supplies the template and dimension; it is copied, so
+     *               the solver may be used again at once
+     * @param sudoku the puzzle, with 0 for blank cells; left unchanged
+     */
+    public SolutionSpliterator(SudokuSolver solver, int[] sudoku) {
+        _dimension = solver.Dimension();
+        _template = new DLXArrayMatrix(solver.Template());
+        _rows = new int[_dimension * _dimension];
+        for (int i = 0; i < _rows.length; ++i)
+            if (sudoku[i] > 0 && sudoku[i] <= _dimension)
+                _rows[_rowCount++] = i * _dimension + sudoku[i] - 1;
+        _estimate = Long.MAX_VALUE;
+    }
+
+    private SolutionSpliterator(SolutionSpliterator parent, int lo, int hi) {
+        _dimension = parent._dimension;
+        _template = parent._template;
+        _rows = parent._rows; // neither side changes them once expanded
+        _rowCount = parent._rowCount;
+        _choices = parent._choices;
+        _lo = lo;
+        _hi = hi;
+        _estimate = parent._estimate;
+    }
+
+    public static void main(String[] args) {
+        int[] sudoku = Puzzles.Parse(args[0]);
+        boolean parallel = args.length > 1 && args[1].equals("parallel");
+
+        long start = System.nanoTime();
+        long count = Solutions(new SudokuSolver(), sudoku, parallel).count();
+        System.out.printf("%d solutions in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+    }
+
+    // a stream of every solution of sudoku, each a new array
+    public static Stream<int[]> Solutions(SudokuSolver solver, int[] sudoku, boolean parallel) {
+        return StreamSupport.stream(new SolutionSpliterator(solver, sudoku), parallel);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> action) {
+        if (!_started) {
+            Expand();
+            _started = true;
+        }
+
+        while (!_dead) {
+            if (_complete) {
+                _complete = false;
+                _dead = true;
+                int[] solution = new int[_rows.length];
+                for (int i = 0; i < _rowCount; ++i)
+                    solution[_rows[i] / _dimension] = _rows[i] % _dimension + 1;
+                action.accept(solution);
+                return true;
+            }
+
+            if (_searching) {
+                if (_dlx.Resume(Long.MAX_VALUE) == ArrayDLX.FOUND) {
+                    action.accept(Decode());
+                    return true;
+                }
+                _dlx.Restore();
+                _searching = false;
+                ++_lo;
+            }
+
+            if (_lo >= _hi) {
+                _dead = true;
+                break;
+            }
+            Engine();
+            for (int i = 0; i < _rowCount; ++i)
+                _dlx.AddRowToSolution(_rows[i]);
+            _dlx.AddRowToSolution(_choices[_lo]);
+            _dlx.Begin(1); // FOUND at every solution
+            _searching = true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        if (_started)
+            return null;
+
+        Expand();
+        while (!_dead && !_complete && _hi - _lo == 1) { // nothing to split here; go a level deeper
+            int[] rows = new int[_rows.length];
+            System.arraycopy(_rows, 0, rows, 0, _rowCount);
+            rows[_rowCount] = _choices[_lo];
+            _rows = rows;
+            ++_rowCount;
+            _choices = null;
+            _lo = 0;
+            _hi = 0;
+            Expand();
+        }
+        if (_dead || _complete)
+            return null;
+
+        int mid = (_lo + _hi) >>> 1;
+        _estimate >>>= 1;
+        SolutionSpliterator prefix = new SolutionSpliterator(this, _lo, mid);
+        _lo = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return _estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    // finds the subtree's branch point: replays _rows, follows forced moves,
+    // and takes the rows of the shortest column as the choices
+    private void Expand() {
+        if (_choices != null || _dead || _complete)
+            return;
+
+        Engine();
+        for (int i = 0; i < _rowCount; ++i)
+            if (!_dlx.AddRowToSolution(_rows[i])) { // only givens can clash
+                _dlx.Restore();
+                _dead = true;
+                return;
+            }
+
+        DLXArrayMatrix matrix = _dlx.Matrix();
+        while (true) {
+            if (matrix.right[DLXArrayMatrix.ROOT] == DLXArrayMatrix.ROOT) {
+                _complete = true; // every column covered
+                break;
+            }
+
+            int col = ShortestColumn(matrix);
+            if (matrix.size[col] == 0) {
+                _dead = true;
+                break;
+            }
+            if (matrix.size[col] > 1) {
+                _choices = new int[matrix.size[col]];
+                for (int node = matrix.down[col]; node != col; node = matrix.down[node])
+                    _choices[_hi++] = matrix.row[node];
+                break;
+            }
+
+            int row = matrix.row[matrix.down[col]]; // forced
+            _dlx.AddRowToSolution(row);
+            _rows[_rowCount++] = row;
+        }
+        _dlx.Restore();
+    }
+
+    private void Engine() {
+        if (_dlx == null)
+            _dlx = new ArrayDLX(new DLXArrayMatrix(_template));
+    }
+
+    private int[] Decode() {
+        int[] solution = new int[_rows.length];
+        for (int i = 0; i < _dlx.SolutionSize(); ++i) {
+            int row = _dlx.SolutionRow(i);
+            solution[row / _dimension] = row % _dimension + 1;
+        }
+        return solution;
+    }
+
+    private static int ShortestColumn(DLXArrayMatrix matrix) {
+        int shortest = matrix.right[DLXArrayMatrix.ROOT];
+        for (int col = shortest; col != DLXArrayMatrix.ROOT; col = matrix.right[col])
+            if (matrix.size[col] < matrix.size[shortest])
+                shortest = col;
+        return shortest;
+    }
+}
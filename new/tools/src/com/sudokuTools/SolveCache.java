@@ -0,0 +1,296 @@
+package com.sudokuTools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sudokuSolver.BitmaskSolver;
+
+// Remembers what solving a puzzle gave so that puzzles seen before (daily
+// puzzles, shared boards, retries) are not solved again.  A puzzle's key
+// packs its 81 cells three digits to ten bits, five longs in all.  Every
+// outcome is cached, including unsolvable puzzles and ones with several
+// solutions, whose first solution is kept as BatchSolve reports it.
+//
+// The cache is split into stripes by key hash, each a small access-ordered
+// LinkedHashMap behind its own lock, so lookups on different stripes never
+// contend.  With a spill file, entries a stripe evicts are written to a
+// memory-mapped table on disk instead of being dropped; each stripe owns
+// its own region of the table, so the stripe lock covers it too.  A disk
+// slot is picked by hash and simply overwritten on collision, so the disk
+// tier is a second, larger, lossy cache.  The table survives restarts when
+// opened again with the same shape.
+public class SolveCache implements Closeable {
+    private static final long MAGIC = 0x53756b43616368L; // "SukCach"
+    private static final int HEADER = 64;       // bytes before the first record
+    private static final int RECORD = 11 * 8;   // key, outcome + 1 (0 for empty), solution
+
+    private final LongAdder _diskHits = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final ThreadLocal<Key> _probes = new ThreadLocal<Key>() {
+        @Override
+        protected Key initialValue() {
+            return new Key();
+        }
+    };
+    private final LongAdder _spills = new LongAdder();
+    private final Stripe[] _stripes;
+
+    private final FileChannel _channel; // the spill file, or null
+    private final MappedByteBuffer _disk;
+    private final int _diskSlots;       // per stripe
+
+    // an in-memory cache of about capacity entries
+    public SolveCache(int capacity) throws IOException {
+        this(capacity, null, 0);
+    }
+
+    /**
+     * @param capacity entries kept in memory, across all stripes
+     * @param spill the spill file, created if need be; null for none
+     * @param spillEntries entries the spill file can hold
+     */
+    public SolveCache(int capacity, Path spill, int spillEntries) throws IOException {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 8);
+        _stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; ++i)
+            _stripes[i] = new Stripe(i, Math.max(1, capacity / stripes));
+
+        if (spill == null) {
+            _channel = null;
+            _disk = null;
+            _diskSlots = 0;
+            return;
+        }
+
+        _diskSlots = Math.max(1, spillEntries / stripes);
+        long size = HEADER + (long) RECORD * _diskSlots * stripes;
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("spill file too large: " + spillEntries + " entries");
+        _channel = FileChannel.open(spill, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        boolean fresh = _channel.size() != size;
+        if (fresh)
+            _channel.truncate(0);
+        _disk = _channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (fresh || _disk.getLong(0) != MAGIC || _disk.getInt(8) != stripes || _disk.getInt(12) != _diskSlots) {
+            for (long i = 0; i < size; i += 8) // the file's shape changed;
+                _disk.putLong((int) i, 0);     // start it afresh
+            _disk.putLong(0, MAGIC);
+            _disk.putInt(8, stripes);
+            _disk.putInt(12, _diskSlots);
+        }
+    }
+
+    public long DiskHits() {
+        return _diskHits.sum();
+    }
+
+    public long Evictions() {
+        return _evictions.sum();
+    }
+
+    public long Hits() {
+        return _hits.sum();
+    }
+
+    public long Misses() {
+        return _misses.sum();
+    }
+
+    // evictions written to the spill file
+    public long Spills() {
+        return _spills.sum();
+    }
+
+    /**
+     * Solves sudoku in place, from the cache if it has been seen before and
+     * with solver otherwise.
+     *
+     * @return BatchSolve.UNIQUE, MULTIPLE (sudoku holds the first solution
+     *         found) or UNSOLVABLE (sudoku is left as it was)
+     */
+    public int Solve(int[] sudoku, BitmaskSolver solver) {
+        Key probe = _probes.get();
+        probe.Pack(sudoku);
+        Stripe stripe = _stripes[probe._hash & (_stripes.length - 1)];
+
+        synchronized (stripe) {
+            Result result = stripe.get(probe);
+            if (result != null) {
+                _hits.increment();
+                return result.Unpack(sudoku);
+            }
+            if (_disk != null && (result = Read(stripe, probe)) != null) {
+                _diskHits.increment();
+                stripe.put(new Key(probe), result);
+                return result.Unpack(sudoku);
+            }
+        }
+
+        _misses.increment(); // solve outside the lock
+        int solutions = solver.SolveAndCount(sudoku, 2);
+        int outcome = solutions == 0 ? BatchSolve.UNSOLVABLE
+                : solutions == 1 ? BatchSolve.UNIQUE : BatchSolve.MULTIPLE;
+        Result result = new Result(outcome, sudoku);
+        synchronized (stripe) {
+            stripe.put(new Key(probe), result);
+        }
+        return outcome;
+    }
+
+    public void close() throws IOException {
+        if (_channel != null) {
+            _disk.force();
+            _channel.close();
+        }
+    }
+
+    // the offset of key's record in stripe's region of the spill file
+    private int Offset(Stripe stripe, Key key) {
+        int slot = (int) ((key._mix >>> 33) % _diskSlots); // bits the stripe index does not use
+        return HEADER + RECORD * (stripe._index * _diskSlots + slot);
+    }
+
+    // looks key up on disk; the caller holds stripe's lock
+    private Result Read(Stripe stripe, Key key) {
+        int offset = Offset(stripe, key);
+        long outcome = _disk.getLong(offset + 40);
+        if (outcome == 0)
+            return null;
+        for (int i = 0; i < 5; ++i)
+            if (_disk.getLong(offset + 8 * i) != key._packed[i])
+                return null;
+
+        Result result = new Result((int) outcome - 1);
+        for (int i = 0; i < 5; ++i)
+            result._solution[i] = _disk.getLong(offset + 48 + 8 * i);
+        return result;
+    }
+
+    // the caller holds stripe's lock
+    private void Write(Stripe stripe, Key key, Result result) {
+        int offset = Offset(stripe, key);
+        for (int i = 0; i < 5; ++i) {
+            _disk.putLong(offset + 8 * i, key._packed[i]);
+            _disk.putLong(offset + 48 + 8 * i, result._solution[i]);
+        }
+        _disk.putLong(offset + 40, result._outcome + 1);
+    }
+
+    // packs 81 cells of 0-9 into five longs, three cells to ten bits
+    static void Pack(int[] cells, long[] packed) {
+        for (int i = 0; i < 5; ++i)
+            packed[i] = 0;
+        for (int group = 0; group < 27; ++group) {
+            int cell = group * 3;
+            long digits = cells[cell] * 100 + cells[cell + 1] * 10 + cells[cell + 2];
+            packed[group / 6] |= digits << (group % 6 * 10);
+        }
+    }
+
+    static void Unpack(long[] packed, int[] cells) {
+        for (int group = 0; group < 27; ++group) {
+            int digits = (int) (packed[group / 6] >>> (group % 6 * 10) & 0x3FF);
+            int cell = group * 3;
+            cells[cell] = digits / 100;
+            cells[cell + 1] = digits / 10 % 10;
+            cells[cell + 2] = digits % 10;
+        }
+    }
+
+    private static final class Key {
+        int _hash;
+        long _mix; // the full hash; _hash is its low half
+        final long[] _packed = new long[5];
+
+        Key() { }
+
+        Key(Key other) {
+            System.arraycopy(other._packed, 0, _packed, 0, 5);
+            _hash = other._hash;
+            _mix = other._mix;
+        }
+
+        void Pack(int[] sudoku) {
+            SolveCache.Pack(sudoku, _packed);
+            long h = 0;
+            for (long word : _packed)
+                h = (h ^ word) * 0x9E3779B97F4A7C15L;
+            _mix = h ^ h >>> 29;
+            _hash = (int) _mix;
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key))
+                return false;
+            long[] packed = ((Key) other)._packed;
+            for (int i = 0; i < 5; ++i)
+                if (packed[i] != _packed[i])
+                    return false;
+            return true;
+        }
+    }
+
+    private static final class Result {
+        final int _outcome;
+        final long[] _solution = new long[5];
+
+        Result(int outcome) {
+            _outcome = outcome;
+        }
+
+        Result(int outcome, int[] solution) {
+            _outcome = outcome;
+            if (outcome != BatchSolve.UNSOLVABLE)
+                SolveCache.Pack(solution, _solution);
+        }
+
+        // writes the cached solution, if any, into sudoku
+        int Unpack(int[] sudoku) {
+            if (_outcome != BatchSolve.UNSOLVABLE)
+                SolveCache.Unpack(_solution, sudoku);
+            return _outcome;
+        }
+    }
+
+    // one lock's worth of the cache, least recently used entry first
+    private final class Stripe extends LinkedHashMap<Key, Result> {
+        private static final long serialVersionUID = 1L;
+
+        final int _capacity;
+        final int _index;
+
+        Stripe(int index, int capacity) {
+            super(capacity * 4 / 3 + 1, 0.75f, true);
+            _capacity = capacity;
+            _index = index;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            if (size() <= _capacity)
+                return false;
+            _evictions.increment();
+            if (_disk != null) {
+                Write(this, eldest.getKey(), eldest.getValue());
+                _spills.increment();
+            }
+            return true;
+        }
+    }
+}
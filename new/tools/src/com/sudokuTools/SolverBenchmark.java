@@ -0,0 +1,44 @@
+package com.sudokuTools;
+
+import com.sudokuSolver.BitmaskSolver;
+import com.sudokuSolver.SudokuEngine;
+import com.sudokuSolver.SudokuSolver;
+
+// Head-to-head timing of the solving engines on easy, medium and hard
+// corpora.  Easy and medium puzzles come from Board; the hard corpus is
+// the well-known hard puzzles in Puzzles.
+//     java -cp <classes> com.sudokuTools.SolverBenchmark [rounds]
+public class SolverBenchmark {
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int[][][] corpora = { Puzzles.Generated(1, 100), Puzzles.Generated(2, 100), Puzzles.Hard() };
+        String[] corpusNames = { "easy", "medium", "hard" };
+        SudokuEngine[] engines = { new SudokuSolver(9, SudokuSolver.NODE_ENGINE),
+                new SudokuSolver(9, SudokuSolver.ARRAY_ENGINE), new BitmaskSolver() };
+        String[] engineNames = { "dlx-node", "dlx-array", "bitmask" };
+
+        for (int c = 0; c < corpora.length; ++c) {
+            double[] micros = new double[engines.length];
+            for (int e = 0; e < engines.length; ++e) {
+                Time(engines[e], corpora[c], Math.max(1, rounds / 4)); // warm up
+                micros[e] = Time(engines[e], corpora[c], rounds);
+            }
+            for (int e = 0; e < engines.length; ++e)
+                System.out.printf("%-7s %-10s %10.2f us/solve %6.1fx%n", corpusNames[c], engineNames[e],
+                        micros[e], micros[0] / micros[e]);
+        }
+    }
+
+    // average microseconds per solve
+    private static double Time(SudokuEngine engine, int[][] puzzles, int rounds) {
+        int[] sudoku = new int[81];
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; ++r)
+            for (int[] puzzle : puzzles) {
+                System.arraycopy(puzzle, 0, sudoku, 0, 81);
+                if (!engine.Solve(sudoku))
+                    throw new IllegalStateException("unsolvable benchmark puzzle");
+            }
+        return (System.nanoTime() - start) / 1e3 / ((long) rounds * puzzles.length);
+    }
+}